@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.todoservice.entity.TodoItem;
+import com.example.userservice.dto.UserDTO;
+import com.example.userservice.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试数据，固定随机种子，每次运行生成的数据相同
+ */
+public final class BenchmarkData {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private BenchmarkData() {}
+
+    public static List<TodoItem> todoItems(int count) {
+        Random random = new Random(42);
+        List<TodoItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TodoItem item = new TodoItem();
+            item.setId((long) i + 1);
+            item.setTitle((i % 2 == 0 ? "完成第" + i + "项任务" : "Finish task #" + i));
+            item.setDescription(description(random));
+            item.setCompleted(random.nextInt(4) == 0);
+            item.setUserId((long) random.nextInt(100) + 1);
+            item.setCreatedAt(BASE_TIME.plusMinutes(i));
+            item.setUpdatedAt(BASE_TIME.plusMinutes(i + random.nextInt(600)));
+            items.add(item);
+        }
+        return items;
+    }
+
+    public static List<User> users(int count) {
+        Random random = new Random(7);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setUsername("user" + i);
+            user.setPassword("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+            user.setEmail("user" + i + "@example.com");
+            user.setPhone("138" + String.format("%08d", random.nextInt(100_000_000)));
+            user.setStatus(1);
+            user.setCreatedAt(BASE_TIME.plusHours(i));
+            user.setUpdatedAt(BASE_TIME.plusHours(i));
+            users.add(user);
+        }
+        return users;
+    }
+
+    public static List<UserDTO> userDTOs(int count) {
+        List<UserDTO> dtos = new ArrayList<>(count);
+        for (User user : users(count)) {
+            UserDTO dto = new UserDTO();
+            dto.setId(user.getId());
+            dto.setUsername(user.getUsername());
+            dto.setEmail(user.getEmail());
+            dto.setPhone(user.getPhone());
+            dto.setStatus(user.getStatus());
+            dto.setCreatedAt(user.getCreatedAt());
+            dto.setUpdatedAt(user.getUpdatedAt());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    // 描述长度在0~500字符之间，模拟有长有短的真实数据
+    private static String description(Random random) {
+        int length = random.nextInt(500);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(i % 7 == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
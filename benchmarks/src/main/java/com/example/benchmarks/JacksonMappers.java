@@ -0,0 +1,36 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * 按服务中的Jackson配置构造ObjectMapper（Spring Boot默认特性 + todo-service的默认字段过滤器）
+ */
+final class JacksonMappers {
+
+    private JacksonMappers() {}
+
+    /**
+     * @param format json / cbor / smile
+     */
+    static ObjectMapper forFormat(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+        switch (format) {
+            case "json":
+                return builder.factory(new JsonFactory()).build();
+            case "cbor":
+                return builder.factory(new CBORFactory()).build();
+            case "smile":
+                return builder.factory(new SmileFactory()).build();
+            default:
+                throw new IllegalArgumentException("未知格式: " + format);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.benchmarks;
+
+import com.example.todoservice.dto.TodoDTO;
+import com.example.todoservice.dto.TodoSummaryDTO;
+import com.example.todoservice.entity.TodoItem;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 待办事项列表序列化
+ * 对比直接序列化JPA实体（带name/category/complete别名）、TodoDTO与列表接口实际返回的TodoSummaryDTO，
+ * 以及JSON/CBOR/Smile三种格式。每组参数结束时打印三种对象每1000条的编码字节数，用于比较各格式的体积
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoSerializationBenchmark {
+
+    private static final TypeReference<List<TodoDTO>> DTO_LIST = new TypeReference<List<TodoDTO>>() {};
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<TodoItem> entities;
+    private List<TodoDTO> dtos;
+    private List<TodoSummaryDTO> summaries;
+    private byte[] encodedDtos;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = JacksonMappers.forFormat(format);
+        entities = BenchmarkData.todoItems(size);
+        dtos = entities.stream().map(TodoDTO::from).collect(Collectors.toList());
+        summaries = entities.stream().map(TodoSerializationBenchmark::summary).collect(Collectors.toList());
+        encodedDtos = mapper.writeValueAsBytes(dtos);
+    }
+
+    @TearDown(Level.Trial)
+    public void printEncodedSizes() throws Exception {
+        System.out.printf("%n[format=%s] 每1000条编码大小: 实体 %d 字节, TodoDTO %d 字节, TodoSummaryDTO %d 字节%n",
+                format, perThousand(entities), perThousand(dtos), perThousand(summaries));
+    }
+
+    private long perThousand(List<?> values) throws Exception {
+        return (long) mapper.writeValueAsBytes(values).length * 1000 / size;
+    }
+
+    // 与列表查询的JPQL构造表达式一致，描述只取前PREVIEW_LENGTH个字符
+    private static TodoSummaryDTO summary(TodoItem item) {
+        String description = item.getDescription();
+        String preview = description == null || description.length() <= TodoSummaryDTO.PREVIEW_LENGTH
+                ? description : description.substring(0, TodoSummaryDTO.PREVIEW_LENGTH);
+        return new TodoSummaryDTO(item.getId(), item.getTitle(), preview, item.getCompleted(),
+                item.getCreatedAt(), item.getUpdatedAt());
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws Exception {
+        return mapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeDtos() throws Exception {
+        return mapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() throws Exception {
+        return mapper.writeValueAsBytes(summaries);
+    }
+
+    // 包含实体转DTO的开销，对应接口实际执行的路径
+    @Benchmark
+    public byte[] convertAndSerializeDtos() throws Exception {
+        return mapper.writeValueAsBytes(entities.stream().map(TodoDTO::from).collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<TodoDTO> deserializeDtos() throws Exception {
+        return mapper.readValue(encodedDtos, DTO_LIST);
+    }
+}
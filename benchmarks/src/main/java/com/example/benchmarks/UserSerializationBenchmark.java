@@ -0,0 +1,60 @@
+package com.example.benchmarks;
+
+import com.example.userservice.dto.UserDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户列表序列化（user-service GET /api/users 的响应体），JSON/CBOR/Smile对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+    private static final TypeReference<List<UserDTO>> USER_LIST = new TypeReference<List<UserDTO>>() {};
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<UserDTO> users;
+    private byte[] encodedUsers;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = JacksonMappers.forFormat(format);
+        users = BenchmarkData.userDTOs(size);
+        encodedUsers = mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws Exception {
+        return mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<UserDTO> deserializeUsers() throws Exception {
+        return mapper.readValue(encodedUsers, USER_LIST);
+    }
+}
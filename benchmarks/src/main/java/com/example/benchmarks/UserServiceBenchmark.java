@@ -0,0 +1,50 @@
+package com.example.benchmarks;
+
+import com.example.userservice.dto.UserDTO;
+import com.example.userservice.entity.User;
+import com.example.userservice.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * UserService.convertToDTO 实体转DTO
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"1", "1000"})
+    public int size;
+
+    // convertToDTO不访问仓库，未注入依赖的实例即可
+    private UserService userService;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        userService = new UserService();
+        users = BenchmarkData.users(size);
+    }
+
+    @Benchmark
+    public List<UserDTO> convertToDTO() {
+        return users.stream().map(userService::convertToDTO).collect(Collectors.toList());
+    }
+}
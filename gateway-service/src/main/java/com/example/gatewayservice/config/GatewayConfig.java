@@ -71,6 +71,11 @@ public class GatewayConfig {
             // 添加一些调试头部
             builder.header("X-Gateway-Timestamp", String.valueOf(System.currentTimeMillis()));
             builder.header("X-Gateway-Path", request.getPath().value());
+            // 后端按X-Client-Id区分客户端做读己之写，由网关按真实来源地址覆盖，不信任客户端传入的值
+            if (request.getRemoteAddress() != null) {
+                String clientId = "a:" + request.getRemoteAddress().getAddress().getHostAddress();
+                builder.headers(headers -> headers.set("X-Client-Id", clientId));
+            }
             
             return chain.filter(exchange.mutate().request(builder.build()).build());
         };
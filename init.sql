@@ -1,83 +1,6 @@
 -- 创建数据库
+-- 表结构和初始数据由各服务的Flyway迁移脚本维护，服务启动时自动执行：
+--   todo-service/src/main/resources/db/migration  (tododb)
+--   user-service/src/main/resources/db/migration  (userdb)
 CREATE DATABASE IF NOT EXISTS tododb DEFAULT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 CREATE DATABASE IF NOT EXISTS userdb DEFAULT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
-
--- 使用tododb
-USE tododb;
-
--- 创建待办事项表
-CREATE TABLE IF NOT EXISTS todo_items (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
-    title VARCHAR(200) NOT NULL COMMENT '待办事项标题',
-    description TEXT COMMENT '待办事项描述',
-    completed BOOLEAN DEFAULT FALSE COMMENT '是否完成',
-    user_id BIGINT NOT NULL COMMENT '用户ID',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-    INDEX idx_user_id (user_id),
-    INDEX idx_created_at (created_at)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待办事项表';
-
--- 使用userdb
-USE userdb;
-
--- 创建用户表
-CREATE TABLE IF NOT EXISTS users (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
-    username VARCHAR(50) NOT NULL UNIQUE COMMENT '用户名',
-    password VARCHAR(100) NOT NULL COMMENT '密码',
-    email VARCHAR(100) COMMENT '邮箱',
-    phone VARCHAR(20) COMMENT '手机号',
-    status TINYINT DEFAULT 1 COMMENT '状态：0-禁用，1-启用',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-    INDEX idx_username (username),
-    INDEX idx_email (email),
-    INDEX idx_phone (phone)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户表';
-
--- 创建角色表
-CREATE TABLE IF NOT EXISTS roles (
-    id BIGINT PRIMARY KEY AUTO_INCREMENT,
-    name VARCHAR(50) NOT NULL UNIQUE COMMENT '角色名称',
-    description VARCHAR(200) COMMENT '角色描述',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='角色表';
-
--- 创建用户角色关联表
-CREATE TABLE IF NOT EXISTS user_roles (
-    user_id BIGINT NOT NULL COMMENT '用户ID',
-    role_id BIGINT NOT NULL COMMENT '角色ID',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    PRIMARY KEY (user_id, role_id),
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户角色关联表';
-
--- 插入初始角色数据
-INSERT INTO roles (name, description) VALUES 
-('ROLE_USER', '普通用户'),
-('ROLE_ADMIN', '管理员');
-
--- 插入测试用户数据（密码为123456的BCrypt加密形式）
-INSERT INTO users (username, password, email, status) VALUES 
-('admin', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVKIUi', 'admin@example.com', 1),
-('user', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVKIUi', 'user@example.com', 1);
-
--- 为用户分配角色
-INSERT INTO user_roles (user_id, role_id) VALUES 
-(1, 2), -- admin用户分配ROLE_ADMIN角色
-(2, 1); -- user用户分配ROLE_USER角色 
-
--- 回到tododb数据库添加测试数据
-USE tododb;
-
--- 插入测试待办事项数据
-INSERT INTO todo_items (title, description, completed, user_id) VALUES 
-('学习Spring Cloud', '学习微服务架构和Spring Cloud组件', false, 1),
-('完成项目文档', '编写项目的技术文档和使用说明', false, 1),
-('代码review', '检查和优化现有代码', true, 1),
-('数据库设计', '设计用户和Todo的数据库表结构', true, 2),
-('前端页面开发', '开发用户管理和Todo管理页面', false, 2),
-('API测试', '测试所有REST API接口', false, 2); 
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.loadtest;
+
+import org.h2.tools.RunScript;
+import org.h2.tools.Server;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 内嵌H2数据库（MySQL兼容模式），以TCP服务方式供各服务进程连接
+ * 连接参数需与各服务 application-loadtest.yml 中的URL保持一致
+ */
+public class EmbeddedDatabase implements AutoCloseable {
+
+    static final String DB_NAME = "todocloud";
+    static final String SETTINGS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    public static final String ADMIN_USERNAME = "admin";
+    public static final String USER_PREFIX = "loadtest";
+    public static final String PASSWORD = "123456";
+
+    private final int port;
+    // 保持一个连接不关闭，内存库在压测期间一直存在
+    private Connection keepAlive;
+    private Server server;
+
+    public EmbeddedDatabase(int port) {
+        this.port = port;
+    }
+
+    public void start(int users, int todosPerUser) throws SQLException {
+        keepAlive = DriverManager.getConnection("jdbc:h2:mem:" + DB_NAME + SETTINGS + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Reader script = new InputStreamReader(
+                EmbeddedDatabase.class.getResourceAsStream("/loadtest/schema.sql"), StandardCharsets.UTF_8)) {
+            RunScript.execute(keepAlive, script);
+        } catch (IOException e) {
+            throw new IllegalStateException("读取schema.sql失败", e);
+        }
+        seed(users, todosPerUser);
+        server = Server.createTcpServer("-tcpPort", String.valueOf(port)).start();
+        System.out.printf("H2 TCP服务已启动: %s, 用户数=%d%n", server.getURL(), users + 1);
+    }
+
+    /**
+     * 写入admin和 loadtest0..N-1 用户，所有用户密码相同，只计算一次BCrypt
+     */
+    private void seed(int users, int todosPerUser) throws SQLException {
+        String encoded = new BCryptPasswordEncoder().encode(PASSWORD);
+        keepAlive.setAutoCommit(false);
+        try (PreparedStatement insertUser = keepAlive.prepareStatement(
+                     "INSERT INTO userdb.users (id, username, password, email, status) VALUES (?, ?, ?, ?, 1)");
+             PreparedStatement insertRole = keepAlive.prepareStatement(
+                     "INSERT INTO userdb.user_roles (user_id, role_id) VALUES (?, ?)");
+             PreparedStatement insertTodo = keepAlive.prepareStatement(
+                     "INSERT INTO tododb.todo_items (title, description, completed, user_id) VALUES (?, ?, ?, ?)")) {
+            addUser(insertUser, insertRole, 1L, ADMIN_USERNAME, encoded, 2L);
+            for (int i = 0; i < users; i++) {
+                long userId = i + 2L;
+                addUser(insertUser, insertRole, userId, USER_PREFIX + i, encoded, 1L);
+                for (int j = 0; j < todosPerUser; j++) {
+                    insertTodo.setString(1, "压测任务 " + i + "-" + j);
+                    insertTodo.setString(2, "load test seed item " + j);
+                    insertTodo.setBoolean(3, j % 3 == 0);
+                    insertTodo.setLong(4, userId);
+                    insertTodo.addBatch();
+                }
+            }
+            insertUser.executeBatch();
+            insertRole.executeBatch();
+            insertTodo.executeBatch();
+            keepAlive.commit();
+        } finally {
+            keepAlive.setAutoCommit(true);
+        }
+        // 后续自增ID从种子数据之后开始
+        try (PreparedStatement restart = keepAlive.prepareStatement(
+                "ALTER TABLE userdb.users ALTER COLUMN id RESTART WITH " + (users + 2))) {
+            restart.execute();
+        }
+    }
+
+    private void addUser(PreparedStatement insertUser, PreparedStatement insertRole,
+                         long id, String username, String encoded, long roleId) throws SQLException {
+        insertUser.setLong(1, id);
+        insertUser.setString(2, username);
+        insertUser.setString(3, encoded);
+        insertUser.setString(4, username + "@example.com");
+        insertUser.addBatch();
+        insertRole.setLong(1, id);
+        insertRole.setLong(2, roleId);
+        insertRole.addBatch();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (server != null) {
+            server.stop();
+        }
+        if (keepAlive != null) {
+            keepAlive.close();
+        }
+    }
+}
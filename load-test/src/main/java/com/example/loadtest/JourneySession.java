@@ -0,0 +1,114 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 一次用户旅程内的HTTP会话
+ * 所有旅程共用一个HttpClient，会话Cookie（JSESSIONID）由本对象单独保存，
+ * 每个请求按接口名记录耗时，非2xx/3xx或连接异常计为错误
+ */
+public class JourneySession {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final LatencyRecorder recorder;
+    private String sessionCookie;
+
+    public JourneySession(HttpClient client, String baseUrl, Duration requestTimeout, LatencyRecorder recorder) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.recorder = recorder;
+    }
+
+    /**
+     * 表单登录，成功时服务端重定向到首页
+     */
+    public void login(String username, String password) throws JourneyFailedException {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<String> response = send("POST /login", builder("/login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)));
+        Optional<String> location = response.headers().firstValue("Location");
+        if (response.statusCode() != 302 || location.map(l -> l.contains("/login")).orElse(true)) {
+            throw new JourneyFailedException("登录失败: " + username + " -> " + response.statusCode());
+        }
+    }
+
+    public HttpResponse<String> get(String endpoint, String path) throws JourneyFailedException {
+        return send(endpoint, builder(path).GET());
+    }
+
+    public HttpResponse<String> postJson(String endpoint, String path, String json) throws JourneyFailedException {
+        return send(endpoint, builder(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    public HttpResponse<String> put(String endpoint, String path) throws JourneyFailedException {
+        return send(endpoint, builder(path).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public HttpResponse<String> delete(String endpoint, String path) throws JourneyFailedException {
+        return send(endpoint, builder(path).DELETE());
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout);
+        if (sessionCookie != null) {
+            builder.header("Cookie", sessionCookie);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder builder) throws JourneyFailedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw new JourneyFailedException(endpoint + " 请求异常: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JourneyFailedException(endpoint + " 被中断");
+        }
+        boolean success = response.statusCode() < 400;
+        recorder.record(endpoint, System.nanoTime() - start, success);
+        rememberSession(response.headers());
+        if (!success) {
+            throw new JourneyFailedException(endpoint + " 返回 " + response.statusCode());
+        }
+        return response;
+    }
+
+    private void rememberSession(HttpHeaders headers) {
+        for (String setCookie : headers.allValues("Set-Cookie")) {
+            if (setCookie.startsWith("JSESSIONID=")) {
+                int end = setCookie.indexOf(';');
+                sessionCookie = end > 0 ? setCookie.substring(0, end) : setCookie;
+            }
+        }
+    }
+
+    /**
+     * 旅程中某一步失败，后续步骤不再执行
+     */
+    public static class JourneyFailedException extends Exception {
+        public JourneyFailedException(String message) {
+            super(message);
+        }
+    }
+}
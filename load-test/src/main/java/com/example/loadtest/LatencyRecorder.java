@@ -0,0 +1,104 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按接口记录每次请求的耗时和错误数
+ * 预热期间不记录，start()之后的请求才计入报告
+ */
+public class LatencyRecorder {
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    public void start() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    public void stop() {
+        stoppedAt = System.nanoTime();
+        recording = false;
+    }
+
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, k -> new EndpointStats()).add(latencyNanos, success);
+    }
+
+    public double measuredSeconds() {
+        long end = recording ? System.nanoTime() : stoppedAt;
+        return (end - startedAt) / 1e9;
+    }
+
+    /**
+     * 汇总各接口的吞吐量和延迟分位数（毫秒），按接口名排序
+     */
+    public Map<String, Map<String, Object>> summarize() {
+        double seconds = measuredSeconds();
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> result.put(endpoint, stats.summarize(seconds)));
+        return result;
+    }
+
+    private static class EndpointStats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized Map<String, Object> summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long latency : sorted) {
+                total += latency;
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("errors", errors);
+            summary.put("throughput", round(count / seconds));
+            summary.put("mean", count == 0 ? 0 : millis(total / count));
+            summary.put("p50", percentile(sorted, 0.50));
+            summary.put("p90", percentile(sorted, 0.90));
+            summary.put("p95", percentile(sorted, 0.95));
+            summary.put("p99", percentile(sorted, 0.99));
+            summary.put("max", count == 0 ? 0 : millis(sorted[count - 1]));
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return millis(sorted[Math.max(0, index)]);
+        }
+
+        private static double millis(long nanos) {
+            return round(nanos / 1e6);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
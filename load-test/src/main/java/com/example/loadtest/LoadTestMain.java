@@ -0,0 +1,118 @@
+package com.example.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * 离线压测入口
+ *
+ * 参数（--name=value）：
+ *   mode            local（默认，启动内嵌数据库和四个服务进程）| external（压测已启动的网关）
+ *   base-url        网关地址，默认 http://localhost:8080
+ *   rate            每秒到达的旅程数，默认 5
+ *   warmup          预热秒数，不计入报告，默认 10
+ *   duration        统计秒数，默认 60
+ *   users           压测用户数（loadtest0..N-1，密码123456），默认 200
+ *   todos-per-user  每个用户的初始待办数，默认 20
+ *   admin-ratio     管理员旅程占比，默认 0.05
+ *   max-in-flight   同时执行的旅程上限，超出的到达计为dropped，默认 2000
+ *   request-timeout 单个请求超时秒数，默认 10
+ *   seed            到达间隔的随机种子，默认 1
+ *   h2-port         内嵌数据库TCP端口，默认 9092
+ *   todo-service-url 读取SQL语句计数的todo-service地址，默认 http://localhost:8081
+ *   project-dir     项目根目录（查找各服务的 *-exec.jar），默认从当前目录向上查找
+ *   report          JSON报告路径，默认 load-test/target/load-test-report.json
+ */
+public class LoadTestMain {
+
+    private static final String STATEMENTS_METRIC = "hibernate.statements.prepared";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path projectDir = options.containsKey("project-dir")
+                ? Path.of(options.get("project-dir"))
+                : findProjectDir();
+        String mode = options.getOrDefault("mode", "local");
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        double rate = Double.parseDouble(options.getOrDefault("rate", "5"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        int users = Integer.parseInt(options.getOrDefault("users", "200"));
+        int todosPerUser = Integer.parseInt(options.getOrDefault("todos-per-user", "20"));
+        double adminRatio = Double.parseDouble(options.getOrDefault("admin-ratio", "0.05"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        Duration requestTimeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("request-timeout", "10")));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int h2Port = Integer.parseInt(options.getOrDefault("h2-port", "9092"));
+        ServiceMetrics todoMetrics = new ServiceMetrics(options.getOrDefault("todo-service-url", "http://localhost:8081"));
+        Path reportPath = Path.of(options.getOrDefault("report",
+                projectDir.resolve("load-test/target/load-test-report.json").toString()));
+
+        LocalCluster cluster = null;
+        try {
+            if ("local".equals(mode)) {
+                cluster = new LocalCluster(projectDir, projectDir.resolve("load-test/target/logs"), h2Port);
+                cluster.start(users, todosPerUser, Duration.ofSeconds(180));
+            } else if (!"external".equals(mode)) {
+                throw new IllegalArgumentException("未知mode: " + mode);
+            }
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            OpenModelRunner runner = new OpenModelRunner(baseUrl, new UserJourneys(users, adminRatio),
+                    recorder, requestTimeout, maxInFlight, seed);
+            OptionalDouble statementsBefore = todoMetrics.counter(STATEMENTS_METRIC);
+            Map<String, Object> journeys = runner.run(rate, warmup, duration);
+            OptionalDouble statementsAfter = todoMetrics.counter(STATEMENTS_METRIC);
+
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("mode", mode);
+            scenario.put("rate", rate);
+            scenario.put("warmupSeconds", warmup.getSeconds());
+            scenario.put("durationSeconds", duration.getSeconds());
+            scenario.put("users", users);
+            scenario.put("adminRatio", adminRatio);
+            Map<String, Object> report = LoadTestReport.build(scenario, journeys, recorder);
+            // todo-service开启Hibernate统计时（loadtest profile），报告每个旅程平均执行的SQL条数
+            long finished = (Long) journeys.get("finishedIncludingWarmup");
+            if (statementsBefore.isPresent() && statementsAfter.isPresent() && finished > 0) {
+                double perJourney = (statementsAfter.getAsDouble() - statementsBefore.getAsDouble()) / finished;
+                report.put("queries", Map.of("todo-service statementsPerJourney", Math.round(perJourney * 100) / 100.0));
+            }
+            LoadTestReport.print(report);
+            LoadTestReport.write(reportPath, report);
+        } finally {
+            if (cluster != null) {
+                cluster.close();
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    // mvn -pl load-test exec:java 可能在根目录或模块目录下执行，向上找到包含todo-service的目录
+    private static Path findProjectDir() {
+        Path dir = Path.of("").toAbsolutePath();
+        while (dir != null) {
+            if (Files.isDirectory(dir.resolve("todo-service")) && Files.isDirectory(dir.resolve("gateway-service"))) {
+                return dir;
+            }
+            dir = dir.getParent();
+        }
+        throw new IllegalStateException("找不到项目根目录，请使用 --project-dir 指定");
+    }
+}
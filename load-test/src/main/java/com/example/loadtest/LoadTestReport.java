@@ -0,0 +1,51 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测报告：控制台输出各接口汇总表，同时写JSON文件便于对比历史结果
+ */
+public final class LoadTestReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestReport() {}
+
+    public static Map<String, Object> build(Map<String, Object> scenario, Map<String, Object> journeys,
+                                            LatencyRecorder recorder) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", scenario);
+        report.put("measuredSeconds", Math.round(recorder.measuredSeconds() * 10) / 10.0);
+        report.put("journeys", journeys);
+        report.put("endpoints", recorder.summarize());
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void print(Map<String, Object> report) {
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) report.get("endpoints");
+        System.out.println();
+        System.out.println("旅程: " + report.get("journeys"));
+        System.out.printf("%-28s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "mean(ms)", "p50", "p90", "p99", "max");
+        endpoints.forEach((endpoint, s) -> System.out.printf("%-28s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                endpoint, s.get("count"), s.get("errors"), s.get("throughput"), s.get("mean"),
+                s.get("p50"), s.get("p90"), s.get("p99"), s.get("max")));
+        if (report.containsKey("queries")) {
+            System.out.println("SQL: " + report.get("queries"));
+        }
+    }
+
+    public static void write(Path path, Map<String, Object> report) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        MAPPER.writeValue(path.toFile(), report);
+        System.out.println("报告已写入: " + path);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 在本机启动内嵌数据库和四个服务进程（loadtest profile），不需要MySQL和Nacos
+ * 各服务使用自己的可执行jar（mvn package 生成的 *-exec.jar）单独启动，
+ * 避免四个Spring Boot应用在同一个类路径下互相覆盖application.yml和自动配置
+ */
+public class LocalCluster implements AutoCloseable {
+
+    // 启动顺序：被依赖的服务先启动，网关最后
+    private static final String[] SERVICES = {"user-service", "auth-service", "todo-service", "gateway-service"};
+    private static final int[] PORTS = {8082, 8083, 8081, 8080};
+
+    private final Path projectDir;
+    private final Path logDir;
+    private final EmbeddedDatabase database;
+    private final int h2Port;
+    private final List<Process> processes = new ArrayList<>();
+
+    public LocalCluster(Path projectDir, Path logDir, int h2Port) {
+        this.projectDir = projectDir;
+        this.logDir = logDir;
+        this.h2Port = h2Port;
+        this.database = new EmbeddedDatabase(h2Port);
+    }
+
+    public void start(int users, int todosPerUser, Duration startupTimeout) throws Exception {
+        database.start(users, todosPerUser);
+        Files.createDirectories(logDir);
+        for (int i = 0; i < SERVICES.length; i++) {
+            startService(SERVICES[i]);
+            awaitHttp(PORTS[i], startupTimeout, SERVICES[i]);
+        }
+    }
+
+    private void startService(String service) throws IOException {
+        Path jar = findExecutableJar(service);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = List.of(java, "-Xmx512m", "-jar", jar.toString(),
+                "--spring.profiles.active=loadtest",
+                "--loadtest.h2-port=" + h2Port);
+        File log = logDir.resolve(service + ".log").toFile();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        processes.add(process);
+        System.out.printf("启动 %s (pid=%d)，日志: %s%n", service, process.pid(), log);
+    }
+
+    private Path findExecutableJar(String service) throws IOException {
+        Path target = projectDir.resolve(service).resolve("target");
+        if (!Files.isDirectory(target)) {
+            throw new IllegalStateException("未找到 " + target + "，请先执行 mvn package -DskipTests");
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(p -> p.getFileName().toString().endsWith("-exec.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(service + " 缺少可执行jar，请先执行 mvn package -DskipTests"));
+        }
+    }
+
+    /**
+     * 轮询直到端口能返回HTTP响应（任意状态码都算启动完成）
+     */
+    private void awaitHttp(int port, Duration timeout, String service) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Process last = processes.get(processes.size() - 1);
+            if (!last.isAlive()) {
+                throw new IllegalStateException(service + " 启动失败，退出码 " + last.exitValue() + "，详见日志");
+            }
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                System.out.printf("%s 已就绪 (端口 %d)%n", service, port);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException(service + " 在 " + timeout.getSeconds() + " 秒内未就绪");
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        database.close();
+    }
+}
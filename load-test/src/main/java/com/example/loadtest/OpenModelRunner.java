@@ -0,0 +1,137 @@
+package com.example.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开放模型压测：旅程按泊松过程到达（到达率固定，与服务端响应快慢无关），
+ * 每个旅程在独立的虚拟线程中执行，服务端变慢时并发旅程数随之上升而不是降低发压速度
+ */
+public class OpenModelRunner {
+
+    private final String baseUrl;
+    private final UserJourneys journeys;
+    private final LatencyRecorder recorder;
+    private final Duration requestTimeout;
+    private final int maxInFlight;
+    private final long seed;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, LongAdder> completed = new ConcurrentHashMap<>();
+    private final LongAdder failed = new LongAdder();
+    // 含预热期间的全部旅程，用于按旅程折算服务端计数
+    private final LongAdder finishedIncludingWarmup = new LongAdder();
+    private final AtomicInteger loggedFailures = new AtomicInteger();
+    private volatile boolean measuring;
+    private long dropped;
+    private int peakInFlight;
+
+    public OpenModelRunner(String baseUrl, UserJourneys journeys, LatencyRecorder recorder,
+                           Duration requestTimeout, int maxInFlight, long seed) {
+        this.baseUrl = baseUrl;
+        this.journeys = journeys;
+        this.recorder = recorder;
+        this.requestTimeout = requestTimeout;
+        this.maxInFlight = maxInFlight;
+        this.seed = seed;
+    }
+
+    /**
+     * @param ratePerSecond 每秒到达的旅程数
+     * @return 旅程统计，写入报告的journeys部分
+     */
+    public Map<String, Object> run(double ratePerSecond, Duration warmup, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Random random = new Random(seed);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        long start = System.nanoTime();
+        long warmupEnd = start + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        long nextArrival = start;
+        System.out.printf("开始压测: 到达率 %.1f 旅程/秒, 预热 %ds, 持续 %ds%n",
+                ratePerSecond, warmup.getSeconds(), duration.getSeconds());
+
+        while (true) {
+            long now = System.nanoTime();
+            if (!measuring && now >= warmupEnd) {
+                recorder.start();
+                measuring = true;
+            }
+            if (now >= end) {
+                break;
+            }
+            if (nextArrival > now) {
+                LockSupport.parkNanos(Math.min(nextArrival, end) - now);
+                continue;
+            }
+            // 到达时刻按计划推进，发压线程被耽误时会连续补发，不会悄悄降低到达率
+            nextArrival += (long) (-Math.log(1 - random.nextDouble()) / ratePerSecond * 1e9);
+            if (inFlight.get() >= maxInFlight) {
+                if (measuring) {
+                    dropped++;
+                }
+                continue;
+            }
+            peakInFlight = Math.max(peakInFlight, inFlight.incrementAndGet());
+            executor.execute(() -> runJourney(client));
+        }
+
+        // 停止发压后等待已到达的旅程执行完，再结束计时
+        executor.shutdown();
+        if (!executor.awaitTermination(requestTimeout.toSeconds() * 10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        recorder.stop();
+        return summarize(ratePerSecond);
+    }
+
+    private void runJourney(HttpClient client) {
+        JourneySession session = new JourneySession(client, baseUrl, requestTimeout, recorder);
+        boolean counted = measuring;
+        try {
+            String name = journeys.run(session);
+            if (counted) {
+                completed.computeIfAbsent(name, k -> new LongAdder()).increment();
+            }
+        } catch (JourneySession.JourneyFailedException e) {
+            if (counted) {
+                failed.increment();
+            }
+            if (loggedFailures.incrementAndGet() <= 10) {
+                System.out.println("旅程失败: " + e.getMessage());
+            }
+        } finally {
+            finishedIncludingWarmup.increment();
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private Map<String, Object> summarize(double ratePerSecond) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("arrivalRate", ratePerSecond);
+        Map<String, Long> completedByType = new TreeMap<>();
+        completed.forEach((name, count) -> completedByType.put(name, count.sum()));
+        summary.put("completed", completedByType);
+        summary.put("failed", failed.sum());
+        summary.put("dropped", dropped);
+        summary.put("peakInFlight", peakInFlight);
+        summary.put("finishedIncludingWarmup", finishedIncludingWarmup.sum());
+        return summary;
+    }
+}
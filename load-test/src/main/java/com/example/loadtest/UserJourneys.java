@@ -0,0 +1,72 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 压测脚本：模拟经网关访问的用户操作
+ * todo旅程：登录 → 查看列表 → 新增 → 切换完成状态 → 删除 → 再次查看列表
+ * admin旅程：管理员登录 → 用户管理页面
+ */
+public class UserJourneys {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int users;
+    private final double adminRatio;
+
+    public UserJourneys(int users, double adminRatio) {
+        this.users = users;
+        this.adminRatio = adminRatio;
+    }
+
+    /**
+     * 按比例随机选择一种旅程执行
+     *
+     * @return 对应报告中journeys下的分类名
+     */
+    public String run(JourneySession session) throws JourneySession.JourneyFailedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < adminRatio) {
+            adminJourney(session);
+            return "admin";
+        }
+        todoJourney(session, EmbeddedDatabase.USER_PREFIX + random.nextInt(users));
+        return "todo";
+    }
+
+    private void todoJourney(JourneySession session, String username) throws JourneySession.JourneyFailedException {
+        session.login(username, EmbeddedDatabase.PASSWORD);
+        session.get("GET /api/todos", "/api/todos");
+
+        String title = "load test " + System.nanoTime();
+        HttpResponse<String> created = session.postJson("POST /api/todos", "/api/todos",
+                "{\"title\":\"" + title + "\",\"description\":\"created by load-test\"}");
+        long id = readId(created);
+
+        session.put("PUT /api/todos/{id}/toggle", "/api/todos/" + id + "/toggle");
+        session.delete("DELETE /api/todos/{id}", "/api/todos/" + id);
+        session.get("GET /api/todos", "/api/todos");
+    }
+
+    private void adminJourney(JourneySession session) throws JourneySession.JourneyFailedException {
+        session.login(EmbeddedDatabase.ADMIN_USERNAME, EmbeddedDatabase.PASSWORD);
+        session.get("GET /admin/users", "/admin/users");
+    }
+
+    private long readId(HttpResponse<String> response) throws JourneySession.JourneyFailedException {
+        try {
+            JsonNode id = MAPPER.readTree(response.body()).get("id");
+            if (id == null || !id.canConvertToLong()) {
+                throw new JourneySession.JourneyFailedException("创建待办事项的响应中没有id");
+            }
+            return id.asLong();
+        } catch (IOException e) {
+            throw new JourneySession.JourneyFailedException("解析响应失败: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.loadtest.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * JDBC批量INSERT
+ * 连接需开启 rewriteBatchedStatements=true，驱动会把一批合并为多行 INSERT ... VALUES (...),(...)，
+ * 每批单独提交，避免一个超大事务
+ */
+public class BatchInsertWriter implements RowWriter {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final int batchSize;
+    private int pending;
+    private long count;
+
+    public BatchInsertWriter(Connection connection, String table, String[] columns, int batchSize) throws SQLException {
+        this.connection = connection;
+        this.batchSize = batchSize;
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                .append(String.join(", ", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+        connection.setAutoCommit(false);
+        this.statement = connection.prepareStatement(sql.toString());
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+        count++;
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        statement.executeBatch();
+        connection.commit();
+        pending = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            statement.close();
+            connection.setAutoCommit(true);
+        }
+    }
+}
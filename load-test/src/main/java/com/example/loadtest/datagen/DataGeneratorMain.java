@@ -0,0 +1,281 @@
+package com.example.loadtest.datagen;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 向tododb/userdb批量写入合成数据，用于按生产规模复现性能问题
+ *
+ * 运行: mvn -pl load-test exec:java -Dexec.mainClass=com.example.loadtest.datagen.DataGeneratorMain -Dexec.args="--users=100000 --todos=5000000"
+ *
+ * 参数（--name=value）：
+ *   todo-url / user-url  JDBC地址，默认本机3306的tododb / userdb
+ *   db-user / db-password 数据库账号，默认 root / 123456
+ *   users                生成的用户数，默认 100000
+ *   todos                生成的待办总数，默认 2000000
+ *   zipf                 每用户待办数的Zipf指数，默认 1.1
+ *   admin-ratio          额外分配ROLE_ADMIN的用户比例，默认 0.001
+ *   prefix               用户名前缀，默认 gen（用户名为 gen0..genN-1）
+ *   password             所有生成用户的明文密码，默认 123456
+ *   mode                 batch（多行批量INSERT，默认）| load-data（LOAD DATA LOCAL INFILE）
+ *   batch-size           batch模式每批行数，默认 1000
+ *   chunk-rows           load-data模式每次导入的行数，默认 50000
+ *   seed                 随机种子，默认 42；相同种子在空库上生成的数据完全相同
+ *   reset                true时先删除之前以同一前缀生成的用户及其待办，默认 false
+ *
+ * 每次生成在userdb的datagen_runs表中记录前缀、起始ID和用户数。reset只删除记录范围内
+ * 用户名与生成规则（前缀+序号）完全一致的用户及其待办，不会误删恰好以同一前缀开头的真实用户。
+ */
+public class DataGeneratorMain {
+
+    private static final String[] USER_COLUMNS = {"id", "username", "password", "email", "phone", "status", "created_at", "updated_at"};
+    private static final String[] USER_ROLE_COLUMNS = {"user_id", "role_id"};
+    private static final String[] TODO_COLUMNS = {"title", "description", "completed", "user_id", "created_at", "updated_at"};
+    private static final int DELETE_CHUNK = 50000;
+    private static final int RESET_USER_WINDOW = 1000;
+
+    private final Map<String, String> options;
+    private final SyntheticData data;
+
+    public DataGeneratorMain(Map<String, String> options) {
+        this.options = options;
+        this.data = new SyntheticData(Long.parseLong(option("seed", "42")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        new DataGeneratorMain(options).run();
+    }
+
+    private void run() throws Exception {
+        int users = Integer.parseInt(option("users", "100000"));
+        long todos = Long.parseLong(option("todos", "2000000"));
+        String prefix = option("prefix", "gen");
+
+        try (Connection userDb = connect(option("user-url", "jdbc:mysql://localhost:3306/userdb?useUnicode=true&characterEncoding=utf8&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true"));
+             Connection todoDb = connect(option("todo-url", "jdbc:mysql://localhost:3306/tododb?useUnicode=true&characterEncoding=utf8&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true"))) {
+            createRunTable(userDb);
+            if (Boolean.parseBoolean(option("reset", "false"))) {
+                reset(userDb, todoDb, prefix);
+            }
+            if (queryLong(userDb, "SELECT COUNT(*) FROM datagen_runs WHERE prefix = ?", prefix) > 0) {
+                throw new IllegalStateException("已存在前缀为 " + prefix + " 的生成数据，使用 --reset=true 重新生成或换一个 --prefix");
+            }
+
+            long firstId = queryLong(userDb, "SELECT COALESCE(MAX(id), 0) FROM users") + 1;
+            // 先登记再写入，生成中途失败时也能用reset清理已写入的部分
+            execute(userDb, "INSERT INTO datagen_runs (prefix, first_id, user_count) VALUES (?, ?, ?)", prefix, firstId, users);
+            long start = System.nanoTime();
+            generateUsers(userDb, users, firstId, prefix);
+            System.out.printf("用户生成完成: %d 个, 耗时 %.1fs%n", users, (System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            long written = generateTodos(todoDb, users, todos, firstId);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("待办生成完成: %d 条, 耗时 %.1fs (%.0f 行/秒)%n", written, seconds, written / seconds);
+        }
+    }
+
+    private void generateUsers(Connection userDb, int users, long firstId, String prefix) throws SQLException {
+        long userRoleId = queryLong(userDb, "SELECT id FROM roles WHERE name = ?", "ROLE_USER");
+        long adminRoleId = queryLong(userDb, "SELECT id FROM roles WHERE name = ?", "ROLE_ADMIN");
+        double adminRatio = Double.parseDouble(option("admin-ratio", "0.001"));
+        String encodedPassword = preHashedPassword();
+
+        // 先写完用户再写角色关联，保证user_roles写入时外键对应的用户已提交
+        BitSet admins = new BitSet(users);
+        try (RowWriter userWriter = writer(userDb, "users", USER_COLUMNS)) {
+            for (int i = 0; i < users; i++) {
+                SplittableRandom random = data.forUser(i);
+                long id = firstId + i;
+                String username = prefix + i;
+                LocalDateTime createdAt = data.createdAt(random);
+                userWriter.write(id, username, encodedPassword, username + "@example.com", data.phone(random),
+                        random.nextInt(100) < 97 ? 1 : 0, createdAt, data.updatedAt(random, createdAt));
+                if (random.nextDouble() < adminRatio) {
+                    admins.set(i);
+                }
+            }
+        }
+        try (RowWriter roleWriter = writer(userDb, "user_roles", USER_ROLE_COLUMNS)) {
+            for (int i = 0; i < users; i++) {
+                roleWriter.write(firstId + i, userRoleId);
+                if (admins.get(i)) {
+                    roleWriter.write(firstId + i, adminRoleId);
+                }
+            }
+        }
+    }
+
+    private long generateTodos(Connection todoDb, int users, long todos, long firstId) throws SQLException {
+        int[] counts = data.todosPerUser(users, todos, Double.parseDouble(option("zipf", "1.1")));
+        long lastReport = System.nanoTime();
+        try (RowWriter writer = writer(todoDb, "todo_items", TODO_COLUMNS)) {
+            for (int i = 0; i < users; i++) {
+                // 与用户数据使用不同的随机序列，避免待办内容随用户字段变化而改变
+                SplittableRandom random = data.forUser(users + i);
+                double completionRatio = data.completionRatio(random);
+                for (int j = 0; j < counts[i]; j++) {
+                    LocalDateTime createdAt = data.createdAt(random);
+                    writer.write(data.title(random), data.description(random), random.nextDouble() < completionRatio,
+                            firstId + i, createdAt, data.updatedAt(random, createdAt));
+                }
+                if (System.nanoTime() - lastReport > 10_000_000_000L) {
+                    System.out.printf("已写入待办 %d / %d%n", writer.count(), todos);
+                    lastReport = System.nanoTime();
+                }
+            }
+            return writer.count();
+        }
+    }
+
+    /**
+     * 所有生成用户共用一个BCrypt哈希，只计算一次；盐由种子派生，重复运行结果一致
+     */
+    private String preHashedPassword() {
+        try {
+            SecureRandom saltRandom = SecureRandom.getInstance("SHA1PRNG");
+            saltRandom.setSeed(Long.parseLong(option("seed", "42")));
+            return BCrypt.hashpw(option("password", "123456"), BCrypt.gensalt(10, saltRandom));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void createRunTable(Connection userDb) throws SQLException {
+        execute(userDb, "CREATE TABLE IF NOT EXISTS datagen_runs ("
+                + "prefix VARCHAR(50) PRIMARY KEY, first_id BIGINT NOT NULL, user_count INT NOT NULL)");
+    }
+
+    /**
+     * 删除datagen_runs中登记的上次生成数据：按ID窗口取出用户名符合生成规则的用户，
+     * 按这些确切的ID删除待办和用户，分批删除避免长事务；user_roles随users级联删除
+     */
+    private void reset(Connection userDb, Connection todoDb, String prefix) throws SQLException {
+        long firstId;
+        long users;
+        try (PreparedStatement statement = userDb.prepareStatement(
+                "SELECT first_id, user_count FROM datagen_runs WHERE prefix = ?")) {
+            statement.setString(1, prefix);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    System.out.println("没有前缀为 " + prefix + " 的生成记录，跳过删除");
+                    return;
+                }
+                firstId = rs.getLong(1);
+                users = rs.getLong(2);
+            }
+        }
+        long usersDeleted = 0;
+        long todosDeleted = 0;
+        long endId = firstId + users;
+        for (long from = firstId; from < endId; from += RESET_USER_WINDOW) {
+            List<Long> ids = new ArrayList<>();
+            try (PreparedStatement statement = userDb.prepareStatement(
+                    "SELECT id, username FROM users WHERE id >= ? AND id < ?")) {
+                statement.setLong(1, from);
+                statement.setLong(2, Math.min(from + RESET_USER_WINDOW, endId));
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong(1);
+                        if ((prefix + (id - firstId)).equals(rs.getString(2))) {
+                            ids.add(id);
+                        }
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                continue;
+            }
+            String idList = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            todosDeleted += deleteInChunks(todoDb,
+                    "DELETE FROM todo_items WHERE user_id IN (" + idList + ") LIMIT " + DELETE_CHUNK);
+            usersDeleted += execute(userDb, "DELETE FROM users WHERE id IN (" + idList + ")");
+        }
+        execute(userDb, "DELETE FROM datagen_runs WHERE prefix = ?", prefix);
+        System.out.printf("已删除之前生成的数据: 用户 %d 个, 待办 %d 条%n", usersDeleted, todosDeleted);
+    }
+
+    private long deleteInChunks(Connection connection, String sql, Object... params) throws SQLException {
+        long total = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            int deleted;
+            do {
+                deleted = statement.executeUpdate();
+                total += deleted;
+            } while (deleted == DELETE_CHUNK);
+        }
+        return total;
+    }
+
+    private RowWriter writer(Connection connection, String table, String[] columns) throws SQLException {
+        String mode = option("mode", "batch");
+        switch (mode) {
+            case "batch":
+                return new BatchInsertWriter(connection, table, columns, Integer.parseInt(option("batch-size", "1000")));
+            case "load-data":
+                return new LoadDataWriter(connection, table, columns, Integer.parseInt(option("chunk-rows", "50000")));
+            default:
+                throw new IllegalArgumentException("未知mode: " + mode);
+        }
+    }
+
+    private Connection connect(String url) throws SQLException {
+        // 批量INSERT需要驱动改写为多行VALUES；LOAD DATA LOCAL需要客户端显式允许
+        String separator = url.contains("?") ? "&" : "?";
+        return DriverManager.getConnection(url + separator + "rewriteBatchedStatements=true&allowLoadLocalInfile=true",
+                option("db-user", "root"), option("db-password", "123456"));
+    }
+
+    private static int execute(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("查询无结果: " + sql);
+                }
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.loadtest.datagen;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * LOAD DATA LOCAL INFILE 导入
+ * 行数据在内存中编码为制表符分隔文本，每chunkRows行作为一个输入流交给驱动执行一次LOAD DATA，
+ * 不落地临时文件。需要连接参数 allowLoadLocalInfile=true，且服务端开启 local_infile
+ */
+public class LoadDataWriter implements RowWriter {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Connection connection;
+    private final String sql;
+    private final int chunkRows;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+    private final StringBuilder line = new StringBuilder(256);
+    private int pending;
+    private long count;
+
+    public LoadDataWriter(Connection connection, String table, String[] columns, int chunkRows) {
+        this.connection = connection;
+        this.chunkRows = chunkRows;
+        this.sql = "LOAD DATA LOCAL INFILE 'generated.tsv' INTO TABLE " + table
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' ("
+                + String.join(", ", columns) + ")";
+    }
+
+    @Override
+    public void write(Object... values) throws SQLException {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            appendValue(values[i]);
+        }
+        line.append('\n');
+        buffer.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+        count++;
+        if (++pending >= chunkRows) {
+            flush();
+        }
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            line.append("\\N");
+        } else if (value instanceof Boolean) {
+            line.append((Boolean) value ? '1' : '0');
+        } else if (value instanceof LocalDateTime) {
+            line.append(DATE_TIME.format((LocalDateTime) value));
+        } else {
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\': line.append("\\\\"); break;
+                    case '\t': line.append("\\t"); break;
+                    case '\n': line.append("\\n"); break;
+                    case '\r': line.append("\\r"); break;
+                    default: line.append(c);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    private void flush() throws SQLException {
+        if (pending == 0) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.unwrap(JdbcStatement.class)
+                    .setLocalInfileInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+            statement.execute(sql);
+        }
+        buffer.reset();
+        pending = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flush();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.loadtest.datagen;
+
+import java.sql.SQLException;
+
+/**
+ * 按行写入一张表，实现类负责攒批和提交
+ */
+public interface RowWriter extends AutoCloseable {
+
+    /**
+     * 写入一行，values顺序与构造时的列顺序一致，null写为SQL NULL
+     */
+    void write(Object... values) throws SQLException;
+
+    /**
+     * 已写入的行数
+     */
+    long count();
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,128 @@
+package com.example.loadtest.datagen;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * 生成接近真实分布的测试数据，同一个种子每次生成的内容完全相同
+ * - 每个用户的待办数服从Zipf分布：少数用户有大量待办，大多数用户只有几条
+ * - 标题中英文混合，描述有长有短，部分为空
+ * - 每个用户有自己的完成率
+ */
+public class SyntheticData {
+
+    private static final String[] ZH_VERBS = {"完成", "整理", "学习", "复习", "准备", "提交", "检查", "修复", "优化", "联系", "预约", "购买", "阅读", "更新", "设计"};
+    private static final String[] ZH_OBJECTS = {"项目文档", "周报", "Spring Cloud", "数据库索引", "接口测试", "会议纪要", "代码review", "部署脚本",
+            "旅行计划", "年度总结", "牙医", "生日礼物", "读书笔记", "简历", "单元测试", "前端页面", "报销单", "租房合同"};
+    private static final String[] EN_VERBS = {"Finish", "Review", "Write", "Fix", "Plan", "Call", "Book", "Buy", "Read", "Update", "Refactor", "Deploy", "Test", "Clean up"};
+    private static final String[] EN_OBJECTS = {"quarterly report", "API docs", "login page", "flaky test", "team meeting notes", "dentist appointment",
+            "groceries", "release checklist", "database migration", "gateway config", "expense report", "blog post", "onboarding guide"};
+    private static final String[] ZH_SENTENCES = {"需要在本周内处理完毕。", "和团队确认细节后再开始。", "参考上次的实现方式。", "注意边界情况和异常处理。",
+            "完成后同步给相关同事。", "优先级较高，尽快处理。", "可以拆分成几个小任务。"};
+    private static final String[] EN_SENTENCES = {"Check with the team before starting. ", "Follow up by end of week. ", "See previous notes for context. ",
+            "Low priority, do when there is time. ", "Split into smaller tasks if needed. ", "Remember to update the tracker. "};
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final long TIME_SPAN_MINUTES = 2L * 365 * 24 * 60;
+
+    private final long seed;
+
+    public SyntheticData(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 按Zipf分布把totalTodos分配给users个用户，结果与种子一一对应
+     * 排名按种子打乱，待办多的用户不会集中在ID靠前的位置
+     *
+     * @param exponent Zipf指数，越大越集中
+     */
+    public int[] todosPerUser(int users, long totalTodos, double exponent) {
+        double[] weights = new double[users];
+        double sum = 0;
+        for (int rank = 0; rank < users; rank++) {
+            weights[rank] = 1.0 / Math.pow(rank + 1, exponent);
+            sum += weights[rank];
+        }
+        int[] ranks = new int[users];
+        for (int i = 0; i < users; i++) {
+            ranks[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = users - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = tmp;
+        }
+        int[] counts = new int[users];
+        long assigned = 0;
+        for (int i = 0; i < users; i++) {
+            counts[i] = (int) Math.floor(totalTodos * weights[ranks[i]] / sum);
+            assigned += counts[i];
+        }
+        // 取整剩下的部分依次补给前面的用户
+        for (int i = 0; assigned < totalTodos; i = (i + 1) % users) {
+            counts[i]++;
+            assigned++;
+        }
+        return counts;
+    }
+
+    /**
+     * 单个用户的随机源，按用户序号派生，各用户的数据互不影响
+     */
+    public SplittableRandom forUser(int userIndex) {
+        return new SplittableRandom(seed * 1_000_003L + userIndex);
+    }
+
+    /**
+     * 用户完成率：10%~95%之间，偏向中等
+     */
+    public double completionRatio(SplittableRandom random) {
+        return 0.1 + 0.85 * (random.nextDouble() + random.nextDouble()) / 2;
+    }
+
+    public String title(SplittableRandom random) {
+        if (random.nextInt(100) < 60) {
+            return pick(random, ZH_VERBS) + pick(random, ZH_OBJECTS);
+        }
+        return pick(random, EN_VERBS) + " " + pick(random, EN_OBJECTS);
+    }
+
+    /**
+     * 约30%为空，其余1~8句，中英文各半
+     */
+    public String description(SplittableRandom random) {
+        if (random.nextInt(100) < 30) {
+            return null;
+        }
+        boolean chinese = random.nextBoolean();
+        int sentences = 1 + random.nextInt(8);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            sb.append(pick(random, chinese ? ZH_SENTENCES : EN_SENTENCES));
+        }
+        return sb.toString().trim();
+    }
+
+    public LocalDateTime createdAt(SplittableRandom random) {
+        return EPOCH.plusMinutes(random.nextLong(TIME_SPAN_MINUTES));
+    }
+
+    /**
+     * 更新时间不早于创建时间，多数在创建后几天内
+     */
+    public LocalDateTime updatedAt(SplittableRandom random, LocalDateTime createdAt) {
+        return createdAt.plusMinutes((long) (random.nextDouble() * random.nextDouble() * 60 * 24 * 30));
+    }
+
+    public String phone(SplittableRandom random) {
+        return "1" + (3 + random.nextInt(7)) + String.format("%09d", random.nextInt(1_000_000_000));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.loadtest.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 性能回归门禁：把本次JMH结果或压测报告与仓库中的基线逐项比较，超出容差时构建失败
+ *
+ * 运行: mvn -Pperf verify（见README），也可单独执行：
+ *   --kind=jmh|load  结果类型：JMH的 -rf json 输出，或 LoadTestMain 的报告
+ *   --baseline=路径  基线文件（load-test/perf/*-baseline.json）
+ *   --results=路径   本次结果文件
+ *   --report=路径    比较表输出文件
+ *   --update=true    用本次结果覆盖基线中的数值（在基准机器上重新录制基线时使用）
+ *
+ * 基线文件格式：
+ *   {"metrics": {"指标名": {"baseline": 数值|null, "unit": "ms", "better": "lower"|"higher",
+ *                            "tolerance": 0.2, "absoluteTolerance": 0}}}
+ * baseline为null表示尚未录制，视为失败，需先用 --update=true 录制；基线中列出的指标在结果中缺失时也视为失败
+ */
+public class PerfGate {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String kind = required(options, "kind");
+        Path baselinePath = Path.of(required(options, "baseline"));
+        Path resultsPath = Path.of(required(options, "results"));
+        if (!Files.exists(resultsPath)) {
+            throw new IllegalStateException("找不到结果文件: " + resultsPath);
+        }
+
+        JsonNode results = MAPPER.readTree(resultsPath.toFile());
+        Map<String, Double> current;
+        switch (kind) {
+            case "jmh":
+                current = jmhMetrics(results);
+                break;
+            case "load":
+                current = loadMetrics(results);
+                break;
+            default:
+                throw new IllegalArgumentException("未知kind: " + kind);
+        }
+
+        ObjectNode baseline = (ObjectNode) MAPPER.readTree(baselinePath.toFile());
+        if (Boolean.parseBoolean(options.getOrDefault("update", "false"))) {
+            update(baseline, current, baselinePath);
+            return;
+        }
+
+        List<String> failures = new ArrayList<>();
+        String table = compare(baseline, current, failures);
+        System.out.println(table);
+        if (options.containsKey("report")) {
+            Path reportPath = Path.of(options.get("report"));
+            Files.createDirectories(reportPath.toAbsolutePath().getParent());
+            Files.writeString(reportPath, table);
+        }
+        // 通过exec:java在Maven进程内运行，抛异常让构建失败而不是System.exit结束Maven
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("性能回归或缺少基线 " + failures.size() + " 项: " + String.join(", ", failures));
+        }
+    }
+
+    private static String compare(ObjectNode baseline, Map<String, Double> current, List<String> failures) {
+        StringBuilder sb = new StringBuilder();
+        String format = "%-62s %12s %12s %9s %9s  %s%n";
+        sb.append(String.format(format, "metric", "baseline", "current", "change", "tolerance", "status"));
+        Iterator<Map.Entry<String, JsonNode>> metrics = baseline.path("metrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> entry = metrics.next();
+            String name = entry.getKey();
+            JsonNode spec = entry.getValue();
+            String unit = spec.path("unit").asText("");
+            boolean lowerIsBetter = !"higher".equals(spec.path("better").asText("lower"));
+            double tolerance = spec.path("tolerance").asDouble(0.2);
+            double absoluteTolerance = spec.path("absoluteTolerance").asDouble(0);
+            Double value = current.get(name);
+            JsonNode base = spec.get("baseline");
+
+            String status;
+            String change = "";
+            if (value == null) {
+                status = "MISSING";
+                failures.add(name);
+            } else if (base == null || base.isNull()) {
+                // 未录制的指标不能默默放行，否则门禁形同虚设
+                status = "NO BASELINE";
+                failures.add(name);
+            } else {
+                double b = base.asDouble();
+                double delta = lowerIsBetter ? value - b : b - value;
+                change = b == 0 ? "" : String.format("%+.1f%%", (value - b) * 100 / b);
+                // 超出比例容差且超出绝对容差才算回归，避免基线接近0时的误报
+                if (delta > Math.abs(b) * tolerance && delta > absoluteTolerance) {
+                    status = "REGRESSION";
+                    failures.add(name);
+                } else {
+                    status = "OK";
+                }
+            }
+            sb.append(String.format(format, name,
+                    base == null || base.isNull() ? "-" : format(base.asDouble()) + unit,
+                    value == null ? "-" : format(value) + unit,
+                    change,
+                    String.format("%.0f%%", tolerance * 100),
+                    status));
+        }
+        return sb.toString();
+    }
+
+    private static void update(ObjectNode baseline, Map<String, Double> current, Path baselinePath) throws IOException {
+        Iterator<Map.Entry<String, JsonNode>> metrics = baseline.path("metrics").fields();
+        int updated = 0;
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> entry = metrics.next();
+            Double value = current.get(entry.getKey());
+            if (value != null) {
+                ((ObjectNode) entry.getValue()).put("baseline", round(value));
+                updated++;
+            } else {
+                System.out.println("结果中没有该指标，保留原基线: " + entry.getKey());
+            }
+        }
+        MAPPER.writeValue(baselinePath.toFile(), baseline);
+        System.out.println("已更新基线 " + updated + " 项: " + baselinePath);
+    }
+
+    /**
+     * JMH结果的指标名：简单类名.方法名[参数=值,...]，参数按名称排序
+     */
+    private static Map<String, Double> jmhMetrics(JsonNode results) {
+        Map<String, Double> metrics = new HashMap<>();
+        for (JsonNode result : results) {
+            String benchmark = result.path("benchmark").asText();
+            int methodDot = benchmark.lastIndexOf('.');
+            int classDot = benchmark.lastIndexOf('.', methodDot - 1);
+            StringBuilder name = new StringBuilder(benchmark.substring(classDot + 1));
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            if (!params.isEmpty()) {
+                List<String> pairs = new ArrayList<>();
+                params.forEach((k, v) -> pairs.add(k + "=" + v));
+                name.append('[').append(String.join(",", pairs)).append(']');
+            }
+            metrics.put(name.toString(), result.path("primaryMetric").path("score").asDouble());
+        }
+        return metrics;
+    }
+
+    /**
+     * 压测报告的指标名："接口 p95" / "接口 throughput" / "接口 errorRate"，以及queries下的SQL条数
+     */
+    private static Map<String, Double> loadMetrics(JsonNode report) {
+        Map<String, Double> metrics = new HashMap<>();
+        report.path("endpoints").fields().forEachRemaining(e -> {
+            JsonNode s = e.getValue();
+            long count = s.path("count").asLong();
+            metrics.put(e.getKey() + " p95", s.path("p95").asDouble());
+            metrics.put(e.getKey() + " throughput", s.path("throughput").asDouble());
+            metrics.put(e.getKey() + " errorRate", count == 0 ? 0 : (double) s.path("errors").asLong() / count);
+        });
+        report.path("queries").fields().forEachRemaining(e -> metrics.put(e.getKey(), e.getValue().asDouble()));
+        return metrics;
+    }
+
+    private static String format(double value) {
+        return Math.abs(value) >= 100 ? String.format("%.0f", value) : String.format("%.3f", value);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("缺少参数 --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.loadtest.perf;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 检查待办条件查询（GET /api/todos 的过滤和排序参数）在MySQL上的执行计划是否走预期的索引
+ * 语句与 TodoItemRepositoryImpl 生成的SQL形状一致：user_id 等值在前，其余条件按索引列顺序，排序附带id
+ * 执行计划依赖数据分布，应在 DataGeneratorMain 生成生产规模数据后运行
+ *
+ * 运行: mvn -pl load-test exec:java -Dexec.mainClass=com.example.loadtest.perf.QueryPlanCheck
+ *
+ * 参数（--name=value）：
+ *   todo-url              JDBC地址，默认本机3306的tododb
+ *   db-user / db-password 数据库账号，默认 root / 123456
+ *   user-id               用来检查的用户，默认取待办最多的用户
+ *
+ * 任一语句未使用预期索引（全表扫描或选错索引）时抛异常，退出码非0
+ */
+public class QueryPlanCheck {
+
+    private static final String SUMMARY_SELECT =
+            "SELECT id, title, SUBSTRING(description, 1, 100), completed, created_at, updated_at FROM todo_items ";
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String url = options.getOrDefault("todo-url",
+                "jdbc:mysql://localhost:3306/tododb?useUnicode=true&characterEncoding=utf8&useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true");
+
+        try (Connection connection = DriverManager.getConnection(url,
+                options.getOrDefault("db-user", "root"), options.getOrDefault("db-password", "123456"))) {
+            long userId = options.containsKey("user-id")
+                    ? Long.parseLong(options.get("user-id"))
+                    : busiestUser(connection);
+
+            // 语句 -> 可接受的索引
+            Map<String, Set<String>> checks = new LinkedHashMap<>();
+            checks.put(SUMMARY_SELECT + "WHERE user_id = " + userId + " ORDER BY id",
+                    Set.of("idx_user_id", "idx_user_completed_created", "idx_user_updated", "idx_user_title"));
+            checks.put(SUMMARY_SELECT + "WHERE user_id = " + userId + " AND completed = false ORDER BY id LIMIT 50",
+                    Set.of("idx_user_completed_created"));
+            checks.put(SUMMARY_SELECT + "WHERE user_id = " + userId + " AND completed = true"
+                            + " AND created_at >= '2024-01-01 00:00:00' AND created_at < '2024-07-01 00:00:00'"
+                            + " ORDER BY created_at DESC, id DESC LIMIT 50",
+                    Set.of("idx_user_completed_created"));
+            checks.put(SUMMARY_SELECT + "WHERE user_id = " + userId + " AND updated_at >= '2024-06-01 00:00:00'"
+                            + " ORDER BY updated_at, id LIMIT 50",
+                    Set.of("idx_user_updated"));
+            checks.put(SUMMARY_SELECT + "WHERE user_id = " + userId + " AND title LIKE 'Fix%' ESCAPE '\\\\'"
+                            + " ORDER BY title, id LIMIT 50",
+                    Set.of("idx_user_title"));
+            checks.put("SELECT COUNT(*) FROM todo_items WHERE user_id = " + userId + " AND completed = false",
+                    Set.of("idx_user_completed_created"));
+
+            List<String> failures = new ArrayList<>();
+            String format = "%-28s %-8s %-10s %s%n";
+            System.out.printf("用户 %d 的执行计划%n", userId);
+            System.out.printf(format, "key", "type", "rows", "Extra");
+            for (Map.Entry<String, Set<String>> check : checks.entrySet()) {
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + check.getKey());
+                     ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    String key = rs.getString("key");
+                    String type = rs.getString("type");
+                    System.out.println(check.getKey());
+                    System.out.printf(format, key, type, rs.getString("rows"), rs.getString("Extra"));
+                    if (key == null || "ALL".equals(type) || !check.getValue().contains(key)) {
+                        failures.add(check.getKey() + " (key=" + key + ", 预期 " + check.getValue() + ")");
+                    }
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException("未走预期索引的查询 " + failures.size() + " 条:\n" + String.join("\n", failures));
+            }
+            System.out.println("全部查询均走预期索引");
+        }
+    }
+
+    private static long busiestUser(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT user_id FROM todo_items GROUP BY user_id ORDER BY COUNT(*) DESC LIMIT 1");
+             ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("todo_items为空，先用DataGeneratorMain生成数据");
+            }
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+-- 离线压测使用的内嵌H2库：一个库中用两个schema模拟tododb和userdb，
+-- todo-service登录时跨库查询 userdb.users 也能直接执行
+CREATE SCHEMA IF NOT EXISTS tododb;
+CREATE SCHEMA IF NOT EXISTS userdb;
+
+CREATE TABLE IF NOT EXISTS userdb.users (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    status TINYINT DEFAULT 1,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS userdb.idx_email ON userdb.users (email);
+CREATE INDEX IF NOT EXISTS userdb.idx_phone ON userdb.users (phone);
+CREATE INDEX IF NOT EXISTS userdb.idx_created_at ON userdb.users (created_at);
+
+CREATE TABLE IF NOT EXISTS userdb.roles (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(50) NOT NULL UNIQUE,
+    description VARCHAR(200),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS userdb.user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, role_id),
+    FOREIGN KEY (user_id) REFERENCES userdb.users(id) ON DELETE CASCADE,
+    FOREIGN KEY (role_id) REFERENCES userdb.roles(id) ON DELETE CASCADE
+);
+
+INSERT INTO userdb.roles (id, name, description) VALUES (1, 'ROLE_USER', '普通用户'), (2, 'ROLE_ADMIN', '管理员');
+
+-- 计数器由user-service启动后的定时校正按种子数据填充
+CREATE TABLE IF NOT EXISTS userdb.user_stats (
+    stat_key VARCHAR(64) PRIMARY KEY,
+    stat_value BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tododb.todo_items (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    title VARCHAR(200) NOT NULL,
+    description TEXT,
+    completed BOOLEAN DEFAULT FALSE,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS tododb.idx_user_completed_created ON tododb.todo_items (user_id, completed, created_at);
+CREATE INDEX IF NOT EXISTS tododb.idx_user_updated ON tododb.todo_items (user_id, updated_at);
+CREATE INDEX IF NOT EXISTS tododb.idx_user_title ON tododb.todo_items (user_id, title);
+CREATE TABLE IF NOT EXISTS tododb.todo_list_versions (
+    user_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,77 @@
+package com.example.todoservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+/**
+ * 连接池监控配置
+ * 主库连接池（tododb）的hikaricp.*指标由Spring Boot自动注册，
+ * 登录查询使用独立的小连接池（login-userdb），登录高峰不会占满业务连接池，两个池的指标分别按pool标签区分
+ */
+@Configuration
+public class DataSourceMetricsConfig {
+
+    public static final String LOGIN_POOL = "login-userdb";
+
+    private HikariDataSource loginDataSource;
+
+    @Bean(destroyMethod = "shutdown")
+    public SampledLeakDetector sampledLeakDetector(ObjectProvider<MeterRegistry> meterRegistry,
+                                                   @Value("${datasource.leak-detection.sample-rate:0.01}") double sampleRate,
+                                                   @Value("${datasource.leak-detection.threshold-ms:30000}") long thresholdMs) {
+        return new SampledLeakDetector(sampleRate, thresholdMs, meterRegistry);
+    }
+
+    /**
+     * 给主数据源套上抽样泄漏检测
+     */
+    @Bean
+    public static BeanPostProcessor leakDetectionPostProcessor(ObjectProvider<SampledLeakDetector> leakDetector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource) {
+                    return leakDetector.getObject().wrap("tododb", (DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 登录查询专用连接池，URL默认与主库相同（跨库查询userdb.users）
+     * 连接池不注册为DataSource bean，避免替换掉自动配置的主数据源
+     */
+    @Bean
+    public JdbcTemplate loginJdbcTemplate(DataSourceProperties properties,
+                                          MeterRegistry meterRegistry,
+                                          SampledLeakDetector leakDetector,
+                                          @Value("${login.datasource.maximum-pool-size:5}") int maximumPoolSize,
+                                          @Value("${login.datasource.connection-timeout-ms:1000}") long connectionTimeoutMs) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(LOGIN_POOL);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        this.loginDataSource = dataSource;
+        return new JdbcTemplate(leakDetector.wrap(LOGIN_POOL, dataSource));
+    }
+
+    @PreDestroy
+    public void closeLoginDataSource() {
+        if (loginDataSource != null) {
+            loginDataSource.close();
+        }
+    }
+}
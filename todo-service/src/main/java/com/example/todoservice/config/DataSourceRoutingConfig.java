@@ -0,0 +1,163 @@
+package com.example.todoservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离配置，datasource.routing.enabled=true 时生效
+ * 主库使用 spring.datasource 配置，从库在 datasource.routing.replicas 中配置
+ * 与user-service中的同名类保持同一份实现：各服务独立部署、各自持有数据源，没有共享的公共模块，修改时两边同步。
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingConfig.RoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceRoutingConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(RoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(RoutingProperties routingProperties) {
+        return new ReadYourWritesTracker(routingProperties.getStickyWindowMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 DataSourceProperties properties,
+                                 RoutingProperties routingProperties,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(RoutingDataSource.PRIMARY, primaryDataSource);
+
+        List<String> replicaKeys = new ArrayList<>();
+        List<Replica> replicas = routingProperties.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            String key = "replica-" + i;
+            HikariDataSource replicaDataSource = new HikariDataSource();
+            replicaDataSource.setPoolName(key);
+            replicaDataSource.setJdbcUrl(replica.getUrl());
+            replicaDataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.getUsername());
+            replicaDataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.getPassword());
+            replicaDataSource.setDriverClassName(properties.determineDriverClassName());
+            replicaDataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            replicaDataSource.setReadOnly(true);
+            // 从库连接池不是容器中的bean，需要手动注册hikaricp.*指标；
+            // 注册表在连接池启动（第一次取连接）时才获取，创建数据源时获取会与注册表的初始化形成循环依赖
+            replicaDataSource.setMetricsTrackerFactory((poolName, poolStats) -> {
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                return registry != null
+                        ? new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats)
+                        : new IMetricsTracker() {};
+            });
+            targets.put(key, replicaDataSource);
+            replicaKeys.add(key);
+        }
+        log.info("启用读写分离: 主库 + {}个从库, 读己之写窗口{}ms", replicaKeys.size(), routingProperties.getStickyWindowMs());
+
+        RoutingDataSource routingDataSource = new RoutingDataSource(replicaKeys, readYourWritesTracker);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @ConfigurationProperties(prefix = "datasource.routing")
+    public static class RoutingProperties {
+        private boolean enabled;
+        /** 写入后该客户端的读请求继续走主库的时间窗口 */
+        private long stickyWindowMs = 3000;
+        private List<Replica> replicas = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getStickyWindowMs() {
+            return stickyWindowMs;
+        }
+
+        public void setStickyWindowMs(long stickyWindowMs) {
+            this.stickyWindowMs = stickyWindowMs;
+        }
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+    }
+
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.todoservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate语句计数指标，开启 hibernate.generate_statistics 时生效（loadtest profile）
+ * 压测按旅程计算平均SQL条数，用来发现悄悄翻倍的查询
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+public class HibernateStatisticsConfig {
+
+    /**
+     * 采集时才取EntityManagerFactory：绑定指标发生在MeterRegistry创建过程中，
+     * 此时直接依赖它会经由数据源上的泄漏检测（依赖MeterRegistry）形成循环依赖
+     */
+    @Bean
+    public MeterBinder hibernateStatementMetrics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return registry -> {
+            FunctionCounter.builder("hibernate.statements.prepared", entityManagerFactory,
+                            emf -> statistics(emf).getPrepareStatementCount())
+                    .description("Hibernate执行的SQL语句数")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.entities.loaded", entityManagerFactory,
+                            emf -> statistics(emf).getEntityLoadCount())
+                    .description("Hibernate加载的实体数")
+                    .register(registry);
+        };
+    }
+
+    private static Statistics statistics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -1,14 +1,64 @@
 package com.example.todoservice.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class RestTemplateConfig {
     
+    /**
+     * 服务间调用优先使用CBOR响应：CBOR转换器排在最前面，Accept头中application/cbor优先，
+     * 对方不支持时按JSON返回。请求体仍以JSON发送，String类型的响应也不走CBOR。
+     * 请求带上当前登录用户的ID（X-Client-Id），被调服务据此只让该用户在写入后的读请求走主库。
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(Jackson2ObjectMapperBuilder builder) {
+        RestTemplate restTemplate = new RestTemplate();
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper) {
+            @Override
+            public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+                return type != String.class && super.canRead(type, contextClass, mediaType);
+            }
+
+            @Override
+            public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+                return false;
+            }
+        });
+        for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+            // 默认的CBOR/Smile转换器未使用Spring Boot的Jackson配置，去掉
+            if (!(converter instanceof MappingJackson2CborHttpMessageConverter)
+                    && !(converter instanceof MappingJackson2SmileHttpMessageConverter)) {
+                converters.add(converter);
+            }
+        }
+        restTemplate.setMessageConverters(converters);
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            Object userId = attributes != null
+                    ? attributes.getAttribute("userId", RequestAttributes.SCOPE_SESSION) : null;
+            if (userId != null) {
+                request.getHeaders().set(ReadYourWritesTracker.CLIENT_ID_HEADER, "u:" + userId);
+            }
+            return execution.execute(request, body);
+        });
+        return restTemplate;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.example.todoservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 抽样连接泄漏检测
+ * Hikari自带的leakDetectionThreshold每次借出连接都要创建异常对象记录堆栈，
+ * 这里只对sampleRate比例的借出记录堆栈，持有超过thresholdMs仍未归还时打印借出位置并计数
+ */
+public class SampledLeakDetector {
+    private static final Logger log = LoggerFactory.getLogger(SampledLeakDetector.class);
+
+    private final double sampleRate;
+    private final long thresholdMs;
+    // 计数时才取MeterRegistry：主数据源在MeterRegistry创建过程中（绑定连接池指标时）就会被包装，
+    // 直接依赖会形成循环依赖
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ScheduledExecutorService scheduler;
+
+    public SampledLeakDetector(double sampleRate, long thresholdMs, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.sampleRate = sampleRate;
+        this.thresholdMs = thresholdMs;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-leak-detector");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 包装数据源，sampleRate为0时原样返回
+     */
+    public DataSource wrap(String poolName, DataSource target) {
+        if (sampleRate <= 0 || thresholdMs <= 0) {
+            return target;
+        }
+        log.info("连接池{}启用抽样泄漏检测: 抽样率={}, 阈值={}ms", poolName, sampleRate, thresholdMs);
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return track(poolName, super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return track(poolName, super.getConnection(username, password));
+            }
+        };
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private Connection track(String poolName, Connection connection) {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return connection;
+        }
+        Exception borrowedAt = new Exception("连接借出位置 (" + Thread.currentThread().getName() + ")");
+        ScheduledFuture<?> check = scheduler.schedule(() -> {
+            meterRegistry.ifAvailable(registry ->
+                    registry.counter("datasource.connection.leak.suspected", "pool", poolName).increment());
+            log.warn("连接池{}的连接持有超过{}ms未归还，疑似泄漏", poolName, thresholdMs, borrowedAt);
+        }, thresholdMs, TimeUnit.MILLISECONDS);
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        check.cancel(false);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -1,29 +1,44 @@
 package com.example.todoservice.controller;
 
 import com.example.todoservice.dto.UserDTO;
+import com.example.todoservice.service.LoginThrottleService;
+import com.example.todoservice.service.PasswordVerificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import java.util.Set;
 
 @Controller
 public class LoginController {
 
     private static final Logger log = LoggerFactory.getLogger(LoginController.class);
     
+    // 登录查询专用连接池，见 DataSourceMetricsConfig
     @Autowired
+    @Qualifier("loginJdbcTemplate")
     private JdbcTemplate jdbcTemplate;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerificationService passwordVerificationService;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
+    @Value("${login.throttle.trusted-proxies:127.0.0.1,0:0:0:0:0:0:0:1}")
+    private Set<String> trustedProxies;
 
     @GetMapping("/login")
     public String loginPage(@RequestParam(value = "error", required = false) String error,
@@ -46,7 +61,17 @@ public class LoginController {
     public String login(@RequestParam String username,
                        @RequestParam String password,
                        HttpSession session,
+                       HttpServletRequest request,
+                       HttpServletResponse response,
                        Model model) {
+        // 限流检查放在查库和密码校验之前
+        if (!loginThrottleService.tryAcquire(username, clientIp(request))) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            model.addAttribute("error", "登录尝试过于频繁，请稍后再试");
+            model.addAttribute("testAccounts", "测试账户：admin/123456 或 user/123456");
+            return "login";
+        }
+
         try {
             // 直接查询数据库验证用户
             UserDTO user = findUserByUsername(username);
@@ -65,6 +90,12 @@ public class LoginController {
                 model.addAttribute("testAccounts", "测试账户：admin/123456 或 user/123456");
                 return "login";
             }
+        } catch (PasswordVerificationService.BusyException e) {
+            // 校验线程池饱和，快速返回503，不再占用请求线程
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            model.addAttribute("error", e.getMessage());
+            model.addAttribute("testAccounts", "测试账户：admin/123456 或 user/123456");
+            return "login";
         } catch (Exception e) {
             log.error("登录服务异常", e);
             // 如果数据库异常，使用模拟登录作为后备
@@ -89,6 +120,27 @@ public class LoginController {
         return "redirect:/login?logout=true";
     }
 
+    /**
+     * 获取客户端IP
+     * 只有直接来源是受信任的代理（网关）时才读取X-Forwarded-For，从右向左跳过受信任的代理，
+     * 取第一个不受信任的地址；客户端直连时请求头可以随意伪造，直接用来源地址
+     */
+    private String clientIp(HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (!trustedProxies.contains(ip) || forwarded == null || forwarded.isEmpty()) {
+            return ip;
+        }
+        String[] parts = forwarded.split(",");
+        for (int i = parts.length - 1; i >= 0; i--) {
+            ip = parts[i].trim();
+            if (!trustedProxies.contains(ip)) {
+                break;
+            }
+        }
+        return ip;
+    }
+
     /**
      * 根据用户名查询用户
      */
@@ -116,10 +168,12 @@ public class LoginController {
         try {
             // 首先尝试BCrypt验证
             if (encodedPassword.startsWith("$2a$") || encodedPassword.startsWith("$2b$") || encodedPassword.startsWith("$2y$")) {
-                return passwordEncoder.matches(rawPassword, encodedPassword);
+                return passwordVerificationService.matches(rawPassword, encodedPassword);
             }
             // 如果不是BCrypt格式，进行明文比较（为了兼容测试数据）
             return rawPassword.equals(encodedPassword);
+        } catch (PasswordVerificationService.BusyException e) {
+            throw e;
         } catch (Exception e) {
             log.warn("密码验证异常", e);
             return false;
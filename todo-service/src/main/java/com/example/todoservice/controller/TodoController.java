@@ -1,18 +1,29 @@
 package com.example.todoservice.controller;
 
+import com.example.todoservice.dto.TodoDTO;
+import com.example.todoservice.dto.TodoSummaryDTO;
 import com.example.todoservice.entity.TodoItem;
+import com.example.todoservice.repository.TodoFilter;
 import com.example.todoservice.service.TodoService;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.ui.Model;
 import com.example.todoservice.viewmodel.TodoListViewModel;
 
 import javax.servlet.http.HttpSession;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Todo项目REST API控制器
@@ -29,14 +40,66 @@ public class TodoController {
     private TodoService todoService;
 
     /**
-     * 获取当前用户的所有待办事项
+     * 按fields参数（逗号分隔的字段名）裁剪响应字段，未指定时输出全部字段
+     */
+    private MappingJacksonValue withFields(Object body, String fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fields != null && !fields.trim().isEmpty()) {
+            Set<String> names = Arrays.stream(fields.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .collect(Collectors.toSet());
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(TodoDTO.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+        }
+        return value;
+    }
+
+    /**
+     * 获取当前用户的待办事项（摘要，描述只含预览，完整内容见 GET /api/todos/{id}）
+     * 支持按完成状态、创建/更新时间、标题前缀过滤及排序，总数通过 X-Total-Count 响应头返回
      */
     @GetMapping
-    public ResponseEntity<List<TodoItem>> getAllTodos(HttpSession session) {
+    public ResponseEntity<MappingJacksonValue> getAllTodos(
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "completed", required = false) Boolean completed,
+            @RequestParam(value = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(value = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(value = "updatedSince", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            HttpSession session) {
         try {
             log.info("获取所有待办事项");
-            List<TodoItem> todos = todoService.findAll();
-            return ResponseEntity.ok(todos);
+            TodoFilter filter = new TodoFilter();
+            filter.setCompleted(completed);
+            filter.setCreatedFrom(createdFrom);
+            filter.setCreatedTo(createdTo);
+            filter.setUpdatedSince(updatedSince);
+            filter.setTitlePrefix(q);
+            filter.setSort(sort);
+            filter.setLimit(limit);
+
+            List<TodoSummaryDTO> todos;
+            long total;
+            if (!filter.hasConditions()) {
+                todos = todoService.findAllSummaries();
+                total = todos.size();
+            } else {
+                todos = todoService.findSummaries(filter);
+                // 只有截断了结果时才需要额外的COUNT查询
+                total = (limit != null && todos.size() >= limit) ? todoService.countSummaries(filter) : todos.size();
+            }
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(total))
+                    .body(withFields(todos, fields));
+        } catch (IllegalArgumentException e) {
+            log.warn("查询参数不正确: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("获取待办事项列表失败", e);
             return ResponseEntity.badRequest().build();
@@ -47,20 +110,23 @@ public class TodoController {
      * 获取当前用户的所有待办事项（兼容前端调用）
      */
     @GetMapping("/all")
-    public ResponseEntity<List<TodoItem>> getAllTodosCompat(HttpSession session) {
-        return getAllTodos(session);
+    public ResponseEntity<MappingJacksonValue> getAllTodosCompat(
+            @RequestParam(value = "fields", required = false) String fields,
+            HttpSession session) {
+        return getAllTodos(fields, null, null, null, null, null, null, null, session);
     }
 
     /**
      * 根据ID获取待办事项
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TodoItem> getTodoById(@PathVariable Long id) {
+    public ResponseEntity<MappingJacksonValue> getTodoById(@PathVariable Long id,
+            @RequestParam(value = "fields", required = false) String fields) {
         try {
             log.info("根据ID获取待办事项: {}", id);
             Optional<TodoItem> todo = todoService.findById(id);
             if (todo.isPresent()) {
-                return ResponseEntity.ok(todo.get());
+                return ResponseEntity.ok(withFields(TodoDTO.from(todo.get()), fields));
             } else {
                 log.warn("待办事项不存在: {}", id);
                 return ResponseEntity.notFound().build();
@@ -75,11 +141,11 @@ public class TodoController {
      * 创建新的待办事项
      */
     @PostMapping
-    public ResponseEntity<TodoItem> createTodo(@RequestBody TodoItem todoItem) {
+    public ResponseEntity<TodoDTO> createTodo(@RequestBody TodoItem todoItem) {
         try {
             log.info("创建新待办事项: {}", todoItem.getTitle());
             TodoItem savedTodo = todoService.save(todoItem);
-            return ResponseEntity.ok(savedTodo);
+            return ResponseEntity.ok(TodoDTO.from(savedTodo));
         } catch (Exception e) {
             log.error("创建待办事项失败", e);
             return ResponseEntity.badRequest().build();
@@ -90,7 +156,7 @@ public class TodoController {
      * 添加待办事项（兼容前端表单提交）
      */
     @PostMapping("/add")
-    public ResponseEntity<TodoItem> addTodo(@RequestBody TodoItem todoItem) {
+    public ResponseEntity<TodoDTO> addTodo(@RequestBody TodoItem todoItem) {
         return createTodo(todoItem);
     }
 
@@ -98,12 +164,12 @@ public class TodoController {
      * 更新待办事项
      */
     @PutMapping("/{id}")
-    public ResponseEntity<TodoItem> updateTodo(@PathVariable Long id, @RequestBody TodoItem todoItem) {
+    public ResponseEntity<TodoDTO> updateTodo(@PathVariable Long id, @RequestBody TodoItem todoItem) {
         try {
             log.info("更新待办事项: {}", id);
             todoItem.setId(id);
             TodoItem updatedTodo = todoService.save(todoItem);
-            return ResponseEntity.ok(updatedTodo);
+            return ResponseEntity.ok(TodoDTO.from(updatedTodo));
         } catch (Exception e) {
             log.error("更新待办事项失败: {}", id, e);
             return ResponseEntity.badRequest().build();
@@ -146,15 +212,12 @@ public class TodoController {
      * 切换待办事项完成状态
      */
     @PutMapping("/{id}/toggle")
-    public ResponseEntity<TodoItem> toggleTodo(@PathVariable Long id) {
+    public ResponseEntity<TodoDTO> toggleTodo(@PathVariable Long id) {
         try {
             log.info("切换待办事项状态: {}", id);
-            Optional<TodoItem> todoOpt = todoService.findById(id);
+            Optional<TodoItem> todoOpt = todoService.toggle(id);
             if (todoOpt.isPresent()) {
-                TodoItem todo = todoOpt.get();
-                todo.setCompleted(!todo.getCompleted());
-                TodoItem updatedTodo = todoService.save(todo);
-                return ResponseEntity.ok(updatedTodo);
+                return ResponseEntity.ok(TodoDTO.from(todoOpt.get()));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -170,9 +233,9 @@ public class TodoController {
     @GetMapping("/stats")
     public ResponseEntity<Object> getTodoStats() {
         try {
-            List<TodoItem> todos = todoService.findAll();
+            List<TodoSummaryDTO> todos = todoService.findAllSummaries();
             long totalCount = todos.size();
-            long completedCount = todos.stream().filter(TodoItem::getCompleted).count();
+            long completedCount = todos.stream().filter(TodoSummaryDTO::getCompleted).count();
             long pendingCount = totalCount - completedCount;
             
             return ResponseEntity.ok(new Object() {
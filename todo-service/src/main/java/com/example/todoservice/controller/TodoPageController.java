@@ -1,31 +1,58 @@
 package com.example.todoservice.controller;
 
+import com.example.todoservice.dto.TodoSummaryDTO;
 import com.example.todoservice.entity.TodoItem;
+import com.example.todoservice.service.TodoListRenderCache;
 import com.example.todoservice.service.TodoService;
 import com.example.todoservice.viewmodel.TodoListViewModel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Controller
 public class TodoPageController {
 
     private static final Logger log = LoggerFactory.getLogger(TodoPageController.class);
 
+    /** 流式模式下页面骨架中待办行的占位标记 */
+    private static final String STREAM_MARKER = "<!--todo-rows-->";
+
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private TodoListRenderCache todoListRenderCache;
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Value("${todo.page.stream-chunk-size:200}")
+    private int streamChunkSize;
+
     @GetMapping({"/", "/index"})
-    public String index(Model model, HttpSession session) {
+    public String index(Model model, HttpSession session,
+                        HttpServletRequest request, HttpServletResponse response) {
         log.info("访问首页");
         
         // 检查用户登录状态
@@ -40,9 +67,11 @@ public class TodoPageController {
         log.info("用户 {} (ID: {}) 访问主页", username, userId);
         
         try {
-            // 获取当前用户的待办事项
-            TodoListViewModel items = new TodoListViewModel(todoService.findAll());
-            model.addAttribute("items", items);
+            // 先取版本号再查询，保证缓存内容不会比版本号旧
+            long version = todoService.getListVersion(userId);
+            String todoListHtml = todoListRenderCache.getOrRender(userId, version,
+                    () -> renderTodoList(request, response));
+            model.addAttribute("todoListHtml", todoListHtml);
             model.addAttribute("newitem", new TodoItem());
             return "index";
         } catch (Exception e) {
@@ -52,6 +81,82 @@ public class TodoPageController {
         }
     }
 
+    /**
+     * 流式渲染首页（/?stream=true），适用于待办事项很多的用户
+     * 先输出并flush页面骨架，再边从数据库读取边分批写出表格行，
+     * 首字节时间与列表长度无关，单次请求内存占用保持平稳
+     */
+    @GetMapping(value = {"/", "/index"}, params = "stream=true")
+    public void streamIndex(HttpSession session, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        Long userId = (Long) session.getAttribute("userId");
+        if (session.getAttribute("username") == null || userId == null) {
+            log.info("用户未登录，重定向到登录页面");
+            response.sendRedirect("/login");
+            return;
+        }
+        log.info("用户{}以流式模式访问主页", userId);
+
+        // 渲染页面骨架，列表tbody中只留占位标记
+        Map<String, Object> listVars = new HashMap<>();
+        listVars.put("streamMarker", STREAM_MARKER);
+        String listShell = templateEngine.process("fragments/todo-list", Set.of("todoList"),
+                webContext(request, response, listVars));
+        Map<String, Object> pageVars = new HashMap<>();
+        pageVars.put("todoListHtml", listShell);
+        pageVars.put("newitem", new TodoItem());
+        String page = templateEngine.process("index", webContext(request, response, pageVars));
+        int split = page.indexOf(STREAM_MARKER);
+
+        response.setContentType("text/html;charset=UTF-8");
+        PrintWriter writer = response.getWriter();
+        if (split < 0) {
+            // 模板或片段改动后丢失了占位标记，退回一次性渲染完整页面
+            log.warn("页面骨架中没有找到流式占位标记，改为非流式输出");
+            pageVars.put("todoListHtml", renderTodoList(request, response));
+            templateEngine.process("index", webContext(request, response, pageVars), writer);
+            writer.flush();
+            return;
+        }
+        writer.write(page, 0, split);
+        writer.flush();
+
+        int[] offset = {0};
+        int total = todoService.streamAllSummaries(streamChunkSize, chunk -> {
+            Map<String, Object> rowVars = new HashMap<>();
+            rowVars.put("rows", chunk);
+            rowVars.put("offset", offset[0]);
+            templateEngine.process("fragments/todo-list", Set.of("todoRows"),
+                    webContext(request, response, rowVars), writer);
+            writer.flush();
+            offset[0] += chunk.size();
+        });
+        if (total == 0) {
+            templateEngine.process("fragments/todo-list", Set.of("todoEmptyRow"),
+                    webContext(request, response, Collections.emptyMap()), writer);
+        }
+
+        int tail = split + STREAM_MARKER.length();
+        writer.write(page, tail, page.length() - tail);
+        writer.flush();
+        log.info("流式输出完成，共{}条待办事项", total);
+    }
+
+    /**
+     * 查询当前用户的待办事项并渲染列表片段
+     */
+    private String renderTodoList(HttpServletRequest request, HttpServletResponse response) {
+        List<TodoSummaryDTO> todos = todoService.findAllSummaries();
+        return templateEngine.process("fragments/todo-list", Set.of("todoList"),
+                webContext(request, response, Collections.singletonMap("todos", todos)));
+    }
+
+    private WebContext webContext(HttpServletRequest request, HttpServletResponse response,
+                                  Map<String, Object> variables) {
+        return new WebContext(request, response, request.getServletContext(),
+                request.getLocale(), variables);
+    }
+
     /**
      * 获取当前登录用户ID（从Session中获取）
      */
@@ -75,11 +180,14 @@ public class TodoPageController {
 
     @PostMapping("/update")
     public String update(@ModelAttribute("items") TodoListViewModel items, HttpSession session) {
-        Long userId = getCurrentUserId(session);
+        // 未登录时抛出异常
+        getCurrentUserId(session);
         for (TodoItem item : items.getTodoList()) {
             log.info("更新任务: {} (id={})", item.getName(), item.getId());
-            item.setUserId(userId);
-            todoService.save(item);
+            // 页面只提交标题和完成状态，在已有记录上合并，避免覆盖未提交的描述
+            if (!todoService.merge(item).isPresent()) {
+                log.warn("任务不存在或无权限更新: {}", item.getId());
+            }
         }
         return "redirect:/";
     }
@@ -88,19 +196,8 @@ public class TodoPageController {
     public String delete(@PathVariable Long id, HttpSession session) {
         Long userId = getCurrentUserId(session);
         try {
-            // 先检查任务是否属于当前用户
-            TodoItem existingItem = todoService.findById(id).orElse(null);
-            if (existingItem == null) {
-                log.warn("任务不存在: {}", id);
-                return "redirect:/";
-            }
-            
-            if (!existingItem.getUserId().equals(userId)) {
-                log.warn("用户{}试图删除不属于自己的任务: {}", userId, id);
-                return "redirect:/";
-            }
-            
-            log.info("删除任务: {} (id={}, userId={})", existingItem.getName(), id, userId);
+            // 归属检查在deleteById中和删除一起完成，任务不存在或不属于当前用户时抛出异常
+            log.info("删除任务: id={}, userId={}", id, userId);
             todoService.deleteById(id);
         } catch (Exception e) {
             log.error("删除任务失败: {}", id, e);
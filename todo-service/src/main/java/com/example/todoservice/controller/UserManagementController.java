@@ -1,17 +1,23 @@
 package com.example.todoservice.controller;
 
+import com.example.todoservice.dto.BatchDeleteResult;
 import com.example.todoservice.dto.UserDTO;
+import com.example.todoservice.dto.UserPageDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpSession;
+import java.net.URI;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +34,10 @@ public class UserManagementController {
     
     private static final String USER_SERVICE_URL = "http://localhost:8082/api/users";
 
+    // 用户列表页面支持的筛选条件，与user-service的UserQuery字段一致
+    private static final List<String> USER_FILTERS =
+            List.of("username", "email", "phone", "status", "createdFrom", "createdTo");
+
     /**
      * 检查管理员权限
      */
@@ -112,11 +122,15 @@ public class UserManagementController {
     }
 
     /**
-     * 用户列表页面
+     * 用户列表页面，按页从user-service获取，筛选和排序在user-service端执行
      */
     @GetMapping("/users")
-    public String userList(Model model, HttpSession session) {
-        log.info("访问用户管理页面");
+    public String userList(@RequestParam(defaultValue = "0") int page,
+                           @RequestParam(defaultValue = "20") int size,
+                           @RequestParam(defaultValue = "id,asc") String sort,
+                           @RequestParam Map<String, String> params,
+                           Model model, HttpSession session) {
+        log.info("访问用户管理页面，第{}页", page);
         
         // 检查登录状态
         if (session.getAttribute("username") == null) {
@@ -129,30 +143,44 @@ public class UserManagementController {
             return "redirect:/";
         }
 
-        try {
-            // 调用user-service获取用户列表
-            ResponseEntity<List<UserDTO>> response = restTemplate.exchange(
-                USER_SERVICE_URL,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<UserDTO>>() {}
-            );
-            
-            List<UserDTO> users = response.getBody();
-            if (users == null) {
-                users = Collections.emptyList();
+        // 只转发非空的筛选条件，翻页链接沿用同样的条件
+        MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
+        query.add("size", String.valueOf(size));
+        query.add("sort", sort);
+        Map<String, String> filterValues = new HashMap<>();
+        for (String name : USER_FILTERS) {
+            String value = params.get(name);
+            if (value != null && !value.trim().isEmpty()) {
+                query.add(name, value.trim());
+                filterValues.put(name, value.trim());
             }
+        }
+        model.addAttribute("filters", filterValues);
+        model.addAttribute("sort", sort);
+        model.addAttribute("size", size);
+        model.addAttribute("filterQuery", "&" + UriComponentsBuilder.newInstance()
+                .queryParams(query).build().encode().getQuery());
+
+        try {
+            // 调用user-service获取一页用户，角色名随用户一起返回
+            URI pageUri = UriComponentsBuilder.fromHttpUrl(USER_SERVICE_URL + "/page")
+                    .queryParam("page", page)
+                    .queryParams(query)
+                    .build().encode().toUri();
+            UserPageDTO userPage = restTemplate.getForObject(pageUri, UserPageDTO.class);
+            List<UserDTO> users = userPage != null && userPage.getContent() != null
+                    ? userPage.getContent() : Collections.emptyList();
             
-            // 为每个用户添加角色信息
             Map<Long, Boolean> userAdminMap = new HashMap<>();
             for (UserDTO user : users) {
-                boolean isUserAdmin = checkUserIsAdmin(user.getId());
+                boolean isUserAdmin = user.getRoles() != null && user.getRoles().contains("ROLE_ADMIN");
                 userAdminMap.put(user.getId(), isUserAdmin);
             }
             
             model.addAttribute("users", users);
             model.addAttribute("userAdminMap", userAdminMap);
-            log.info("获取用户列表成功，共{}个用户", users.size());
+            model.addAttribute("userPage", userPage);
+            log.info("获取用户列表成功，本页{}个用户", users.size());
             
         } catch (Exception e) {
             log.error("获取用户列表失败", e);
@@ -356,7 +384,8 @@ public class UserManagementController {
      * 批量删除用户
      */
     @PostMapping("/users/batch-delete")
-    public String batchDeleteUsers(@RequestParam("userIds") List<Long> userIds, HttpSession session) {
+    public String batchDeleteUsers(@RequestParam("userIds") List<Long> userIds, HttpSession session,
+                                   RedirectAttributes redirectAttributes) {
         log.info("批量删除用户，数量: {}", userIds.size());
         
         // 检查登录状态和权限
@@ -365,32 +394,33 @@ public class UserManagementController {
         }
         if (!isAdmin(session)) {
             return "redirect:/";
-            }
+        }
 
         try {
-            int successCount = 0;
-            int failCount = 0;
-            
-            // 循环删除每个用户
-            for (Long userId : userIds) {
-                try {
-                    restTemplate.delete(USER_SERVICE_URL + "/" + userId);
-                    successCount++;
-                    log.info("删除用户成功，ID: {}", userId);
-                } catch (Exception e) {
-                    failCount++;
-                    log.warn("删除用户失败，ID: {}, 原因: {}", userId, e.getMessage());
-                }
+            // 一次调用user-service完成批量删除，返回每个ID的结果
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            BatchDeleteResult result = restTemplate.postForObject(USER_SERVICE_URL + "/batch-delete",
+                    new HttpEntity<>(userIds, headers), BatchDeleteResult.class);
+            if (result == null) {
+                redirectAttributes.addAttribute("error", "批量删除失败：用户服务无响应");
+                return "redirect:/admin/users";
             }
-            
-            String message = String.format("删除完成：成功%d个，失败%d个", successCount, failCount);
+
+            result.getResults().forEach((userId, outcome) -> {
+                if (!"DELETED".equals(outcome)) {
+                    log.warn("删除用户失败，ID: {}, 原因: {}", userId, outcome);
+                }
+            });
+            String message = String.format("删除完成：成功%d个，失败%d个", result.getDeletedCount(), result.getNotFoundCount());
             log.info("批量删除完成：{}", message);
-            
+            redirectAttributes.addAttribute("success", message);
             return "redirect:/admin/users";
             
         } catch (Exception e) {
             log.error("批量删除用户失败", e);
-            return "redirect:/admin/users?error=批量删除失败：" + e.getMessage();
+            redirectAttributes.addAttribute("error", "批量删除失败：" + e.getMessage());
+            return "redirect:/admin/users";
         }
     }
 
@@ -460,9 +490,12 @@ public class UserManagementController {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             
-            restTemplate.exchange(fixUrl, HttpMethod.POST, new HttpEntity<>(headers), String.class);
-            log.info("用户角色修复完成");
-            return ResponseEntity.ok("角色修复完成");
+            // 修复在user-service后台分块执行，这里只负责启动
+            ResponseEntity<String> response = restTemplate.exchange(fixUrl, HttpMethod.POST, new HttpEntity<>(headers), String.class);
+            log.info("用户角色修复任务已启动");
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(response.getBody());
             
         } catch (Exception e) {
             log.error("用户角色修复失败", e);
@@ -471,4 +504,29 @@ public class UserManagementController {
         }
     }
 
-} 
\ No newline at end of file
+    /**
+     * 查询角色修复进度
+     */
+    @GetMapping("/users/fix-roles")
+    @ResponseBody
+    public ResponseEntity<String> getFixUserRolesStatus(HttpSession session) {
+        if (session.getAttribute("username") == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("未登录");
+        }
+        if (!isAdmin(session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("权限不足");
+        }
+
+        try {
+            String status = restTemplate.getForObject("http://localhost:8082/api/users/fix-roles", String.class);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(status);
+        } catch (Exception e) {
+            log.error("查询用户角色修复进度失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("查询失败：" + e.getMessage());
+        }
+    }
+
+}
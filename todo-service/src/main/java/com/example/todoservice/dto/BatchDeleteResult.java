@@ -0,0 +1,40 @@
+package com.example.todoservice.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 批量删除结果
+ * 与user-service的BatchDeleteResult保持兼容，results中每个用户ID对应 DELETED / NOT_FOUND
+ */
+public class BatchDeleteResult {
+    private int deletedCount;
+    private int notFoundCount;
+    private Map<Long, String> results = new LinkedHashMap<>();
+
+    public BatchDeleteResult() {}
+
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    public void setDeletedCount(int deletedCount) {
+        this.deletedCount = deletedCount;
+    }
+
+    public int getNotFoundCount() {
+        return notFoundCount;
+    }
+
+    public void setNotFoundCount(int notFoundCount) {
+        this.notFoundCount = notFoundCount;
+    }
+
+    public Map<Long, String> getResults() {
+        return results;
+    }
+
+    public void setResults(Map<Long, String> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.todoservice.dto;
+
+import com.example.todoservice.entity.TodoItem;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待办事项详情响应
+ * 与JPA实体分离，只序列化一套字段，不再输出name/category/complete等Thymeleaf兼容别名
+ */
+@JsonFilter(TodoDTO.FIELDS_FILTER)
+public class TodoDTO {
+    /** 稀疏字段集(fields=)使用的Jackson过滤器ID */
+    public static final String FIELDS_FILTER = "todoFields";
+
+    private Long id;
+    private String title;
+    private String description;
+    private Boolean completed;
+    private Long userId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public TodoDTO() {}
+
+    public static TodoDTO from(TodoItem item) {
+        TodoDTO dto = new TodoDTO();
+        dto.setId(item.getId());
+        dto.setTitle(item.getTitle());
+        dto.setDescription(item.getDescription());
+        dto.setCompleted(item.getCompleted());
+        dto.setUserId(item.getUserId());
+        dto.setCreatedAt(item.getCreatedAt());
+        dto.setUpdatedAt(item.getUpdatedAt());
+        return dto;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TodoDTO{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", completed=" + completed +
+                ", userId=" + userId +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.todoservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待办事项列表摘要
+ * 列表接口和首页只查询这些列，description只取前PREVIEW_LENGTH个字符作为预览，
+ * 完整描述通过 GET /api/todos/{id} 获取
+ */
+@JsonFilter(TodoDTO.FIELDS_FILTER)
+public class TodoSummaryDTO {
+    public static final int PREVIEW_LENGTH = 100;
+
+    private Long id;
+    private String title;
+    private String descriptionPreview;
+    private Boolean completed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public TodoSummaryDTO() {}
+
+    // JPQL构造表达式使用
+    public TodoSummaryDTO(Long id, String title, String descriptionPreview, Boolean completed,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.descriptionPreview = descriptionPreview;
+        this.completed = completed != null ? completed : false;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescriptionPreview() {
+        return descriptionPreview;
+    }
+
+    public void setDescriptionPreview(String descriptionPreview) {
+        this.descriptionPreview = descriptionPreview;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TodoSummaryDTO{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", completed=" + completed +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.todoservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * 分页的用户列表
+ * 与user-service的UserPageDTO保持兼容
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserPageDTO {
+    private List<UserDTO> content;
+    private Integer page;
+    private int size;
+    private Long totalElements;
+    private Integer totalPages;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public UserPageDTO() {}
+
+    public List<UserDTO> getContent() {
+        return content;
+    }
+
+    public void setContent(List<UserDTO> content) {
+        this.content = content;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
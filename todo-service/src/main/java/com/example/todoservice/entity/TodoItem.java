@@ -8,7 +8,11 @@ import java.time.LocalDateTime;
  * 对应数据库表 todo_items
  */
 @Entity
-@Table(name = "todo_items")
+@Table(name = "todo_items", indexes = {
+        @Index(name = "idx_user_completed_created", columnList = "user_id, completed, created_at"),
+        @Index(name = "idx_user_updated", columnList = "user_id, updated_at"),
+        @Index(name = "idx_user_title", columnList = "user_id, title")
+})
 public class TodoItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,6 +21,7 @@ public class TodoItem {
     @Column(nullable = false, length = 200)
     private String title;
     
+    // 列表查询使用TodoSummaryDTO投影，只取描述前100个字符，不加载该大字段
     @Column(columnDefinition = "TEXT")
     private String description;
     
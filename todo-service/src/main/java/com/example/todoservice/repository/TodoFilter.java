@@ -0,0 +1,105 @@
+package com.example.todoservice.repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 待办事项列表查询条件
+ * 所有条件都在SQL中执行，配合 (user_id, completed, created_at) 等复合索引
+ */
+public class TodoFilter {
+    /** 允许排序的字段（实体属性名） */
+    public static final List<String> SORTABLE_FIELDS = Arrays.asList("id", "title", "completed", "createdAt", "updatedAt");
+
+    private Boolean completed;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private LocalDateTime updatedSince;
+    private String titlePrefix;
+    private String sortField = "id";
+    private boolean sortDesc;
+    private Integer limit;
+
+    /**
+     * 解析 sort 参数，格式为 "字段" 或 "字段,asc|desc"，字段或方向不合法时抛出IllegalArgumentException
+     */
+    public void setSort(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return;
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("不支持的排序字段: " + field);
+        }
+        String direction = parts.length > 1 ? parts[1].trim() : "asc";
+        if (parts.length > 2 || !("asc".equalsIgnoreCase(direction) || "desc".equalsIgnoreCase(direction))) {
+            throw new IllegalArgumentException("不支持的排序方向: " + sort);
+        }
+        this.sortField = field;
+        this.sortDesc = "desc".equalsIgnoreCase(direction);
+    }
+
+    public boolean hasConditions() {
+        return completed != null || createdFrom != null || createdTo != null
+                || updatedSince != null || titlePrefix != null || limit != null
+                || !"id".equals(sortField) || sortDesc;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public LocalDateTime getUpdatedSince() {
+        return updatedSince;
+    }
+
+    public void setUpdatedSince(LocalDateTime updatedSince) {
+        this.updatedSince = updatedSince;
+    }
+
+    public String getTitlePrefix() {
+        return titlePrefix;
+    }
+
+    public void setTitlePrefix(String titlePrefix) {
+        this.titlePrefix = (titlePrefix == null || titlePrefix.isEmpty()) ? null : titlePrefix;
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public boolean isSortDesc() {
+        return sortDesc;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
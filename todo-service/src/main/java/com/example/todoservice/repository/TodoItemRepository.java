@@ -1,10 +1,48 @@
 package com.example.todoservice.repository;
 
+import com.example.todoservice.dto.TodoSummaryDTO;
 import com.example.todoservice.entity.TodoItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
- 
-public interface TodoItemRepository extends JpaRepository<TodoItem, Long> {
+
+public interface TodoItemRepository extends JpaRepository<TodoItem, Long>, TodoItemRepositoryCustom {
+    /** 摘要投影的公共SELECT部分，描述列只截取预览 */
+    String SUMMARY_SELECT = "SELECT new com.example.todoservice.dto.TodoSummaryDTO("
+            + "t.id, t.title, SUBSTRING(t.description, 1, " + TodoSummaryDTO.PREVIEW_LENGTH + "), "
+            + "t.completed, t.createdAt, t.updatedAt) FROM TodoItem t";
+
     List<TodoItem> findByUserId(Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * 列表摘要查询，不读取完整的TEXT描述列
+     */
+    @Query(SUMMARY_SELECT + " WHERE t.userId = :userId ORDER BY t.id")
+    List<TodoSummaryDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * 用户待办列表的版本号，没有记录时返回null（从未修改过）
+     */
+    @Query(value = "SELECT version FROM todo_list_versions WHERE user_id = :userId", nativeQuery = true)
+    Long findListVersion(@Param("userId") Long userId);
+
+    /**
+     * 原子地递增列表版本号，记录不存在时创建；必须在修改待办的事务中调用
+     */
+    @Modifying
+    @Query(value = "INSERT INTO todo_list_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    void incrementListVersion(@Param("userId") Long userId);
+
+    /**
+     * 按主键游标分批读取摘要：取ID大于afterId的前pageable.size条，每批是一次独立的短查询
+     */
+    @Query(SUMMARY_SELECT + " WHERE t.userId = :userId AND t.id > :afterId ORDER BY t.id")
+    List<TodoSummaryDTO> findSummariesByUserIdAfter(@Param("userId") Long userId,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+}
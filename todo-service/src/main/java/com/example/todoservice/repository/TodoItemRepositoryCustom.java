@@ -0,0 +1,15 @@
+package com.example.todoservice.repository;
+
+import com.example.todoservice.dto.TodoSummaryDTO;
+
+import java.util.List;
+
+/**
+ * 按条件查询待办摘要的自定义仓库方法，实现见TodoItemRepositoryImpl
+ */
+public interface TodoItemRepositoryCustom {
+
+    List<TodoSummaryDTO> findSummaries(Long userId, TodoFilter filter);
+
+    long countSummaries(Long userId, TodoFilter filter);
+}
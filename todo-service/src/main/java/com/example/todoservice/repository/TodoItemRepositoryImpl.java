@@ -0,0 +1,91 @@
+package com.example.todoservice.repository;
+
+import com.example.todoservice.dto.TodoSummaryDTO;
+import com.example.todoservice.entity.TodoItem;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 条件查询实现
+ * 谓词顺序与索引列顺序一致：user_id 等值 → completed 等值 → created_at/updated_at 范围，
+ * 标题前缀用 LIKE 'xxx%' 以便走 (user_id, title) 索引
+ */
+public class TodoItemRepositoryImpl implements TodoItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoSummaryDTO> findSummaries(Long userId, TodoFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoSummaryDTO> query = cb.createQuery(TodoSummaryDTO.class);
+        Root<TodoItem> root = query.from(TodoItem.class);
+        query.select(cb.construct(TodoSummaryDTO.class,
+                root.get("id"),
+                root.get("title"),
+                cb.substring(root.<String>get("description"), 1, TodoSummaryDTO.PREVIEW_LENGTH),
+                root.get("completed"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+        query.where(predicates(cb, root, userId, filter));
+
+        // 排序字段有重复值时按id排序，保证分页和截断结果稳定；InnoDB二级索引末尾自带主键，不影响走索引
+        Path<Object> sortPath = root.get(filter.getSortField());
+        Path<Object> idPath = root.get("id");
+        if ("id".equals(filter.getSortField())) {
+            query.orderBy(filter.isSortDesc() ? cb.desc(idPath) : cb.asc(idPath));
+        } else if (filter.isSortDesc()) {
+            query.orderBy(cb.desc(sortPath), cb.desc(idPath));
+        } else {
+            query.orderBy(cb.asc(sortPath), cb.asc(idPath));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(filter.getLimit() != null ? filter.getLimit() : Integer.MAX_VALUE)
+                .getResultList();
+    }
+
+    @Override
+    public long countSummaries(Long userId, TodoFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TodoItem> root = query.from(TodoItem.class);
+        query.select(cb.count(root));
+        query.where(predicates(cb, root, userId, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<TodoItem> root, Long userId, TodoFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("userId"), userId));
+        if (filter.getCompleted() != null) {
+            predicates.add(cb.equal(root.get("completed"), filter.getCompleted()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(root.<LocalDateTime>get("createdAt"), filter.getCreatedTo()));
+        }
+        if (filter.getUpdatedSince() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("updatedAt"), filter.getUpdatedSince()));
+        }
+        if (filter.getTitlePrefix() != null) {
+            predicates.add(cb.like(root.<String>get("title"), escapeLike(filter.getTitlePrefix()) + "%", '\\'));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
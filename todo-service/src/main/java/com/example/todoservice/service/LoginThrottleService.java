@@ -0,0 +1,188 @@
+package com.example.todoservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 登录限流服务
+ * 按用户名和IP分别维护滑动窗口计数，在查库和BCrypt校验之前拦截撞库请求。
+ * 计数表按key哈希分段加锁，每段按LRU限制条目数，内存占用有上限。
+ */
+@Service
+public class LoginThrottleService {
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long windowMs;
+    private final int maxPerUsername;
+    private final int maxPerIp;
+
+    private final Counter allowedCounter;
+    private final Counter blockedByUsernameCounter;
+    private final Counter blockedByIpCounter;
+
+    public LoginThrottleService(MeterRegistry meterRegistry,
+                                @Value("${login.throttle.window-seconds:60}") long windowSeconds,
+                                @Value("${login.throttle.max-per-username:10}") int maxPerUsername,
+                                @Value("${login.throttle.max-per-ip:50}") int maxPerIp,
+                                @Value("${login.throttle.max-keys:100000}") int maxKeys) {
+        this.windowMs = windowSeconds * 1000;
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+
+        int perStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+
+        this.allowedCounter = Counter.builder("login.throttle.allowed")
+                .description("通过限流的登录请求数")
+                .register(meterRegistry);
+        this.blockedByUsernameCounter = Counter.builder("login.throttle.blocked")
+                .tag("reason", "username")
+                .description("被限流拦截的登录请求数")
+                .register(meterRegistry);
+        this.blockedByIpCounter = Counter.builder("login.throttle.blocked")
+                .tag("reason", "ip")
+                .description("被限流拦截的登录请求数")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.keys", this, LoginThrottleService::trackedKeys)
+                .description("当前跟踪的用户名/IP数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录一次登录尝试
+     *
+     * @return false 表示超过限额，应直接拒绝
+     */
+    public boolean tryAcquire(String username, String ip) {
+        long now = System.currentTimeMillis();
+        String userKey = "u:" + (username == null ? "" : username.toLowerCase());
+        String ipKey = "ip:" + (ip == null ? "unknown" : ip);
+
+        // 两个key的检查和记录在同一临界区内完成，否则并发请求可以同时通过检查再各自记录，突破限额；
+        // 按分段下标顺序加锁，避免两个请求以相反顺序持有两个分段而死锁
+        int ipIndex = stripeIndex(ipKey);
+        int userIndex = stripeIndex(userKey);
+        boolean blockedByIp = false;
+        boolean blockedByUsername = false;
+        synchronized (stripes[Math.min(ipIndex, userIndex)]) {
+            synchronized (stripes[Math.max(ipIndex, userIndex)]) {
+                if (estimate(ipKey, now) >= maxPerIp) {
+                    blockedByIp = true;
+                } else if (estimate(userKey, now) >= maxPerUsername) {
+                    blockedByUsername = true;
+                } else {
+                    record(ipKey, now);
+                    record(userKey, now);
+                }
+            }
+        }
+
+        if (blockedByIp) {
+            blockedByIpCounter.increment();
+            log.warn("登录限流(IP): {}", ip);
+            return false;
+        }
+        if (blockedByUsername) {
+            blockedByUsernameCounter.increment();
+            log.warn("登录限流(用户名): {}", username);
+            return false;
+        }
+        allowedCounter.increment();
+        return true;
+    }
+
+    private double estimate(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window window = stripe.windows.get(key);
+            return window == null ? 0 : window.estimate(now, windowMs);
+        }
+    }
+
+    private void record(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.windows.computeIfAbsent(key, k -> new Window()).add(now, windowMs);
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private static int stripeIndex(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+
+    private double trackedKeys() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.windows.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 一个分段：按访问顺序的LinkedHashMap，超过上限淘汰最久未访问的key
+     */
+    private static class Stripe {
+        private final Map<String, Window> windows;
+
+        Stripe(int maxEntries) {
+            this.windows = new LinkedHashMap<String, Window>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    /**
+     * 滑动窗口计数：保留当前窗口和上一窗口的计数，
+     * 按上一窗口在滑动区间内的剩余比例加权，计数随时间自动衰减
+     */
+    private static class Window {
+        private long windowStart;
+        private int current;
+        private int previous;
+
+        void add(long now, long windowMs) {
+            roll(now, windowMs);
+            current++;
+        }
+
+        double estimate(long now, long windowMs) {
+            roll(now, windowMs);
+            double previousWeight = 1.0 - (double) (now - windowStart) / windowMs;
+            return current + previous * previousWeight;
+        }
+
+        private void roll(long now, long windowMs) {
+            long start = now - (now % windowMs);
+            if (start == windowStart) {
+                return;
+            }
+            previous = (start - windowStart == windowMs) ? current : 0;
+            current = 0;
+            windowStart = start;
+        }
+    }
+}
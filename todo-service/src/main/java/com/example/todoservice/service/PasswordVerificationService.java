@@ -0,0 +1,125 @@
+package com.example.todoservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码校验服务
+ * BCrypt校验放到按CPU核数设置的独立线程池中执行，队列有界，满了直接拒绝，
+ * 避免登录高峰把Tomcat请求线程全部占满拖慢 /api/todos
+ */
+@Service
+public class PasswordVerificationService {
+    private static final Logger log = LoggerFactory.getLogger(PasswordVerificationService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+
+    private final Timer hashTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordVerificationService(PasswordEncoder passwordEncoder,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${login.hashing.threads:0}") int threads,
+                                       @Value("${login.hashing.queue-capacity:64}") int queueCapacity,
+                                       @Value("${login.hashing.wait-timeout-ms:2000}") long waitTimeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.waitTimeoutMs = waitTimeoutMs;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("login.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("等待BCrypt校验的任务数")
+                .register(meterRegistry);
+        Gauge.builder("login.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在执行BCrypt校验的线程数")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("login.hashing.time")
+                .description("BCrypt校验耗时")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("login.hashing.queue.wait")
+                .description("任务在队列中的等待时间")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("login.hashing.rejected")
+                .description("线程池饱和被拒绝的校验次数")
+                .register(meterRegistry);
+
+        log.info("密码校验线程池初始化: threads={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    /**
+     * 在校验线程池中执行BCrypt比对
+     *
+     * @throws BusyException 线程池饱和或等待超时
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        long submittedAt = System.nanoTime();
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("密码校验线程池已满，拒绝本次登录校验");
+            throw new BusyException("登录请求过多，请稍后重试");
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("密码校验等待超时: {}ms", waitTimeoutMs);
+            throw new BusyException("登录请求过多，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException("登录校验被中断");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("密码校验失败", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 校验线程池饱和，调用方应返回503
+     */
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+}
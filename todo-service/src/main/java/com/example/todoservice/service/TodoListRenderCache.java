@@ -0,0 +1,72 @@
+package com.example.todoservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 首页待办列表片段的渲染缓存
+ * 按用户缓存已渲染的HTML，key中带上TodoService维护的列表版本号，
+ * 版本号未变时直接复用，跳过查库和模板渲染
+ */
+@Component
+public class TodoListRenderCache {
+
+    private final Map<Long, Entry> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public TodoListRenderCache(MeterRegistry meterRegistry,
+                               @Value("${todo.render-cache.max-users:10000}") int maxUsers) {
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+        this.hitCounter = Counter.builder("todo.render.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("todo.render.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取缓存的片段，版本号不一致时调用renderer重新渲染并缓存
+     */
+    public String getOrRender(Long userId, long version, Supplier<String> renderer) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.version == version) {
+                hitCounter.increment();
+                return entry.html;
+            }
+        }
+
+        missCounter.increment();
+        String html = renderer.get();
+        synchronized (entries) {
+            Entry existing = entries.get(userId);
+            if (existing == null || existing.version <= version) {
+                entries.put(userId, new Entry(version, html));
+            }
+        }
+        return html;
+    }
+
+    private static class Entry {
+        private final long version;
+        private final String html;
+
+        Entry(long version, String html) {
+            this.version = version;
+            this.html = html;
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.todoservice.service;
 
+import com.example.todoservice.dto.TodoSummaryDTO;
 import com.example.todoservice.entity.TodoItem;
+import com.example.todoservice.repository.TodoFilter;
 import com.example.todoservice.repository.TodoItemRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpSession;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class TodoService {
@@ -44,12 +49,90 @@ public class TodoService {
         }
     }
 
+    /**
+     * 获取用户待办列表的当前版本号
+     * 版本号保存在todo_list_versions表中，随增删改在同一事务中递增，多个实例看到的版本号一致；
+     * 绕过服务直接写库（数据生成脚本）不会递增版本号，已缓存的列表要等用户下一次修改才会刷新
+     */
+    @Transactional(readOnly = true)
+    public long getListVersion(Long userId) {
+        Long version = todoItemRepository.findListVersion(userId);
+        return version != null ? version : 0L;
+    }
+
+    private void bumpListVersion(Long userId) {
+        todoItemRepository.incrementListVersion(userId);
+    }
+
+    @Transactional(readOnly = true)
     public List<TodoItem> findAll() {
         Long userId = getCurrentUserId();
         log.info("查询用户{}的所有任务", userId);
         return todoItemRepository.findByUserId(userId);
     }
 
+    /**
+     * 获取当前用户的待办摘要列表（不含完整描述）
+     */
+    @Transactional(readOnly = true)
+    public List<TodoSummaryDTO> findAllSummaries() {
+        Long userId = getCurrentUserId();
+        log.info("查询用户{}的任务摘要", userId);
+        return todoItemRepository.findSummariesByUserId(userId);
+    }
+
+    /**
+     * 按条件查询当前用户的待办摘要，过滤和排序都在SQL中完成
+     */
+    @Transactional(readOnly = true)
+    public List<TodoSummaryDTO> findSummaries(TodoFilter filter) {
+        Long userId = getCurrentUserId();
+        log.info("按条件查询用户{}的任务摘要", userId);
+        return todoItemRepository.findSummaries(userId, filter);
+    }
+
+    /**
+     * 按条件统计当前用户的待办数量
+     */
+    @Transactional(readOnly = true)
+    public long countSummaries(TodoFilter filter) {
+        return todoItemRepository.countSummaries(getCurrentUserId(), filter);
+    }
+
+    /**
+     * 分批读取当前用户的待办摘要，每批chunkSize条回调一次
+     * 按主键游标逐批查询，每批查询完即归还连接，回调（向客户端输出）期间不占用数据库连接；
+     * 摘要是DTO而非托管实体，内存占用与列表长度无关
+     * 不开启事务：各批不在同一个快照中，输出期间新增或删除的待办可能出现或缺失
+     *
+     * @return 读取的总条数
+     */
+    public int streamAllSummaries(int chunkSize, Consumer<List<TodoSummaryDTO>> chunkConsumer) {
+        Long userId = getCurrentUserId();
+        log.info("分批查询用户{}的所有任务，每批{}条", userId, chunkSize);
+        int total = 0;
+        long afterId = 0;
+        while (true) {
+            List<TodoSummaryDTO> chunk = todoItemRepository.findSummariesByUserIdAfter(
+                    userId, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            chunkConsumer.accept(chunk);
+            total += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        return total;
+    }
+
+    /**
+     * 查询单个任务，只用于展示。单独调用时走从库；
+     * 需要先读再改的流程用toggle/merge/deleteById，在同一个主库读写事务中加载和保存
+     */
+    @Transactional(readOnly = true)
     public Optional<TodoItem> findById(Long id) {
         log.info("根据ID查询任务: {}", id);
         Optional<TodoItem> todoItem = todoItemRepository.findById(id);
@@ -64,18 +147,52 @@ public class TodoService {
         return todoItem;
     }
 
+    @Transactional
     public TodoItem save(TodoItem todoItem) {
         Long userId = getCurrentUserId();
         todoItem.setUserId(userId);
         log.info("保存用户{}的任务: {} (id={})", userId, todoItem.getName(), todoItem.getId());
-        return todoItemRepository.save(todoItem);
+        TodoItem saved = todoItemRepository.save(todoItem);
+        bumpListVersion(userId);
+        return saved;
+    }
+
+    /**
+     * 切换任务完成状态，加载和保存在同一个读写事务中
+     */
+    @Transactional
+    public Optional<TodoItem> toggle(Long id) {
+        Optional<TodoItem> todoItem = findById(id);
+        todoItem.ifPresent(todo -> {
+            todo.setCompleted(!todo.getCompleted());
+            save(todo);
+        });
+        return todoItem;
+    }
+
+    /**
+     * 把页面提交的标题和完成状态合并到已有记录上，避免覆盖页面未提交的描述
+     */
+    @Transactional
+    public Optional<TodoItem> merge(TodoItem item) {
+        Optional<TodoItem> existing = findById(item.getId());
+        existing.ifPresent(todo -> {
+            if (item.getName() != null) {
+                todo.setName(item.getName());
+            }
+            todo.setComplete(item.getComplete());
+            save(todo);
+        });
+        return existing;
     }
 
+    @Transactional
     public void deleteById(Long id) {
         Optional<TodoItem> todoItem = findById(id);
         if (todoItem.isPresent()) {
             log.info("删除任务: {}", id);
             todoItemRepository.deleteById(id);
+            bumpListVersion(todoItem.get().getUserId());
         } else {
             log.warn("任务不存在或无权限删除: {}", id);
             throw new RuntimeException("任务不存在或无权限删除");
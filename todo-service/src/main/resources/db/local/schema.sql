@@ -0,0 +1,19 @@
+-- replica-local profile 使用的内嵌H2表结构，主库和从库连接时各自执行
+CREATE TABLE IF NOT EXISTS todo_items (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    title VARCHAR(200) NOT NULL,
+    description TEXT,
+    completed BOOLEAN DEFAULT FALSE,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_user_id ON todo_items (user_id);
+CREATE INDEX IF NOT EXISTS idx_user_completed_created ON todo_items (user_id, completed, created_at);
+CREATE INDEX IF NOT EXISTS idx_user_updated ON todo_items (user_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_user_title ON todo_items (user_id, title);
+-- 与迁移V3一致：每个用户待办列表的版本号，修改待办时在同一事务中加1
+CREATE TABLE IF NOT EXISTS todo_list_versions (
+    user_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,22 @@
+-- 待办事项表初始结构（与原 init.sql 一致）
+-- 已有数据库会以版本1为基线，跳过本脚本
+CREATE TABLE IF NOT EXISTS todo_items (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    title VARCHAR(200) NOT NULL COMMENT '待办事项标题',
+    description TEXT COMMENT '待办事项描述',
+    completed BOOLEAN DEFAULT FALSE COMMENT '是否完成',
+    user_id BIGINT NOT NULL COMMENT '用户ID',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_user_id (user_id),
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待办事项表';
+
+-- 测试数据
+INSERT INTO todo_items (title, description, completed, user_id) VALUES
+('学习Spring Cloud', '学习微服务架构和Spring Cloud组件', false, 1),
+('完成项目文档', '编写项目的技术文档和使用说明', false, 1),
+('代码review', '检查和优化现有代码', true, 1),
+('数据库设计', '设计用户和Todo的数据库表结构', true, 2),
+('前端页面开发', '开发用户管理和Todo管理页面', false, 2),
+('API测试', '测试所有REST API接口', false, 2);
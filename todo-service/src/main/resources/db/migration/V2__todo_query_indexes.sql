@@ -0,0 +1,42 @@
+-- 按实际查询建立复合索引（索引可能已由ddl-auto创建，存在时跳过）
+--   列表/流式摘要:      WHERE user_id = ? ORDER BY id         -> idx_user_id (二级索引隐含主键)
+--   完成状态+创建时间:  WHERE user_id = ? AND completed = ? AND created_at ...  -> idx_user_completed_created
+--   增量同步:          WHERE user_id = ? AND updated_at >= ? -> idx_user_updated
+--   标题前缀:          WHERE user_id = ? AND title LIKE 'x%' -> idx_user_title
+-- idx_created_at 没有任何查询使用（所有查询都带user_id），删除
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_user_completed_created ON todo_items (user_id, completed, created_at)',
+        'SELECT 1')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'todo_items' AND index_name = 'idx_user_completed_created');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_user_updated ON todo_items (user_id, updated_at)',
+        'SELECT 1')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'todo_items' AND index_name = 'idx_user_updated');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_user_title ON todo_items (user_id, title)',
+        'SELECT 1')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'todo_items' AND index_name = 'idx_user_title');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) > 0,
+        'DROP INDEX idx_created_at ON todo_items',
+        'SELECT 1')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'todo_items' AND index_name = 'idx_created_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,6 @@
+-- 每个用户待办列表的版本号：新增、修改、删除待办时在同一事务中加1
+-- 首页渲染缓存以此判断是否失效，各实例共享同一个版本号
+CREATE TABLE IF NOT EXISTS todo_list_versions (
+    user_id BIGINT PRIMARY KEY COMMENT '用户ID',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '列表版本号'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='待办列表版本号';
@@ -0,0 +1,42 @@
+package com.example.userservice.config;
+
+import org.flywaydb.core.api.MigrationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    /**
+     * 启动时的数据库版本检查
+     * auto-migrate=true 时先执行迁移；之后只要还有未执行的迁移脚本就拒绝启动，
+     * 避免在结构不一致的数据库上运行
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${db.migration.auto-migrate:true}") boolean autoMigrate) {
+        return flyway -> {
+            if (autoMigrate) {
+                flyway.migrate();
+            }
+            MigrationInfo[] pending = flyway.info().pending();
+            if (pending.length > 0) {
+                String versions = Arrays.stream(pending)
+                        .map(info -> info.getVersion() + " " + info.getDescription())
+                        .collect(Collectors.joining(", "));
+                throw new IllegalStateException("数据库结构未迁移到最新版本，待执行: " + versions);
+            }
+            MigrationInfo current = flyway.info().current();
+            log.info("数据库结构版本: {}", current != null ? current.getVersion() : "无");
+        };
+    }
+}
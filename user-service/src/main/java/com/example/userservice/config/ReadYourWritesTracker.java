@@ -0,0 +1,80 @@
+package com.example.userservice.config;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读己之写：记录每个客户端最近一次写事务的时间，
+ * 在stickyWindowMs内该客户端的只读事务仍然走主库，避免读到从库延迟前的旧数据。
+ * 客户端以Session ID识别；没有Session时（服务间调用）按调用方传递的X-Client-Id头识别发起请求的用户或客户端，
+ * 再没有则按当前登录用户识别；都没有时不做粘滞。不按来源地址识别：服务间调用都来自少数几个网关和服务地址，
+ * 任何一次写入都会让所有读请求在窗口期内走主库。
+ * 与todo-service中的同名类保持同一份实现：各服务独立部署、各自持有数据源，没有共享的公共模块，修改时两边同步。
+ */
+public class ReadYourWritesTracker {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final long stickyWindowMs;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    public ReadYourWritesTracker(long stickyWindowMs) {
+        this.stickyWindowMs = stickyWindowMs;
+    }
+
+    public void markWrite() {
+        String key = currentClientKey();
+        if (key == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastWrites.put(key, now);
+        sweep(now);
+    }
+
+    public boolean isSticky() {
+        String key = currentClientKey();
+        if (key == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(key);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < stickyWindowMs;
+    }
+
+    /**
+     * 定期清理已过窗口期的记录，保证表的大小只与窗口期内写过的客户端数有关
+     */
+    private void sweep(long now) {
+        if (now - lastSweep < stickyWindowMs) {
+            return;
+        }
+        lastSweep = now;
+        lastWrites.entrySet().removeIf(e -> now - e.getValue() >= stickyWindowMs);
+    }
+
+    private String currentClientKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            return "s:" + session.getId();
+        }
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isEmpty()) {
+            return "c:" + clientId;
+        }
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "p:" + principal.getName() : null;
+    }
+}
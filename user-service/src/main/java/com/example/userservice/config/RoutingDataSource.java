@@ -0,0 +1,40 @@
+package com.example.userservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离数据源
+ * 只读事务（@Transactional(readOnly = true)）轮询分配到从库，其余一律走主库。
+ * 需要包在LazyConnectionDataSourceProxy中使用，保证取连接时事务的只读标记已经设置。
+ * 与todo-service中的同名类保持同一份实现：各服务独立部署、各自持有数据源，没有共享的公共模块，修改时两边同步。
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public RoutingDataSource(List<String> replicaKeys, ReadYourWritesTracker tracker) {
+        this.replicaKeys = replicaKeys;
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (readOnly && !replicaKeys.isEmpty() && !tracker.isSticky()) {
+            int index = Math.floorMod(counter.getAndIncrement(), replicaKeys.size());
+            return replicaKeys.get(index);
+        }
+        if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+            tracker.markWrite();
+        }
+        return PRIMARY;
+    }
+}
@@ -13,8 +13,11 @@ public class SecurityConfig {
             .csrf().disable()
             .authorizeRequests()
                 .antMatchers("/login", "/api/auth/**", "/api/users/**").permitAll() // 放行登录、注册、用户API
+                .antMatchers("/actuator/health", "/actuator/health/**").permitAll() // 其余actuator端点（metrics、prometheus）需要登录
                 .anyRequest().authenticated()
             .and()
+            .httpBasic() // 供Prometheus等抓取方用Basic认证访问指标
+            .and()
             .formLogin()
                 .loginPage("/login") // 如有自定义登录页，否则可去掉
                 .permitAll();
@@ -1,7 +1,15 @@
 package com.example.userservice.controller;
 
+import com.example.userservice.dto.BatchDeleteResult;
+import com.example.userservice.dto.RoleFixStatus;
 import com.example.userservice.dto.UserDTO;
+import com.example.userservice.dto.UserImportStatus;
+import com.example.userservice.dto.UserPageDTO;
+import com.example.userservice.dto.UserQuery;
+import com.example.userservice.service.RoleFixJob;
+import com.example.userservice.service.UserImportService;
 import com.example.userservice.service.UserService;
+import com.example.userservice.service.UserStatsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +18,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 // import javax.validation.Valid; // 移除validation依赖
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * 用户管理REST API控制器
@@ -26,6 +37,15 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private RoleFixJob roleFixJob;
+
+    @Autowired
+    private UserImportService userImportService;
+
     /**
      * 获取所有用户列表
      */
@@ -42,6 +62,43 @@ public class UserController {
     }
     }
 
+    /**
+     * 分页获取用户列表（带角色名），支持筛选和排序
+     * 页码分页: ?page=0&size=20&sort=createdAt,desc&username=adm&status=1&createdFrom=2024-01-01
+     * 游标分页: ?cursor=&size=100&sort=id,asc，之后传入上一页返回的nextCursor
+     */
+    @GetMapping("/page")
+    public ResponseEntity<UserPageDTO> findPage(UserQuery query,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size,
+                                                @RequestParam(required = false) String sort,
+                                                @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(userService.findPage(query, page, size, sort, cursor));
+        } catch (IllegalArgumentException e) {
+            log.warn("分页参数不正确: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("分页获取用户列表失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 获取所有用户及其角色名（一次查询），供用户管理页面使用
+     */
+    @GetMapping("/with-roles")
+    public ResponseEntity<List<UserDTO>> findAllWithRoles() {
+        try {
+            List<UserDTO> users = userService.findAllWithRoles();
+            log.info("成功获取{}个用户及角色", users.size());
+            return ResponseEntity.ok(users);
+        } catch (Exception e) {
+            log.error("获取用户及角色列表失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * 根据ID获取用户信息
      */
@@ -192,18 +249,8 @@ public class UserController {
     @DeleteMapping("/batch")
     public ResponseEntity<String> batchDelete(@RequestBody List<Long> userIds) {
         try {
-            log.info("批量删除用户，数量: {}", userIds.size());
-            int deletedCount = 0;
-            for (Long id : userIds) {
-                try {
-                    userService.delete(id);
-                    deletedCount++;
-                } catch (Exception e) {
-                    log.warn("删除用户失败: {}", id, e);
-                }
-            }
-            log.info("批量删除完成，成功删除{}个用户", deletedCount);
-            return ResponseEntity.ok("成功删除" + deletedCount + "个用户");
+            BatchDeleteResult result = userService.deleteAll(userIds);
+            return ResponseEntity.ok("成功删除" + result.getDeletedCount() + "个用户");
         } catch (Exception e) {
             log.error("批量删除用户失败", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("批量删除失败");
@@ -211,24 +258,96 @@ public class UserController {
     }
 
     /**
-     * 获取用户统计信息
+     * 批量删除用户，返回每个ID的删除结果（DELETED / NOT_FOUND）
+     * 使用POST以便各种HTTP客户端都能携带请求体
+     */
+    @PostMapping("/batch-delete")
+    public ResponseEntity<BatchDeleteResult> batchDeleteWithResults(@RequestBody List<Long> userIds) {
+        try {
+            return ResponseEntity.ok(userService.deleteAll(userIds));
+        } catch (Exception e) {
+            log.error("批量删除用户失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 批量导入用户，后台执行，立即返回202和任务进度
+     * 请求体为CSV（text/csv，首行为列名username,password,email,phone,status）
+     * 或NDJSON（application/x-ndjson，每行一个用户JSON），也可用format参数（csv/ndjson）指定格式
+     * 请求体超过 user.import.max-bytes 时返回413
+     */
+    @PostMapping("/import")
+    public ResponseEntity<UserImportStatus> importUsers(HttpServletRequest request,
+                                                        @RequestParam(required = false) String format) {
+        try {
+            String importFormat = format != null ? format.trim().toLowerCase(Locale.ROOT) : importFormatOf(request.getContentType());
+            log.info("批量导入用户，格式: {}", importFormat);
+            UserImportStatus status = userImportService.submit(request.getInputStream(), request.getContentLengthLong(), importFormat);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (UserImportService.TooLargeException e) {
+            log.warn("批量导入用户请求体过大: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (IllegalArgumentException e) {
+            log.warn("批量导入用户请求无效: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("批量导入用户失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 查询导入任务进度
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<UserImportStatus> getImportStatus(@PathVariable String jobId) {
+        return userImportService.status(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static String importFormatOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("csv")) {
+            return UserImportService.CSV;
+        }
+        if (type.contains("ndjson") || type.contains("json")) {
+            return UserImportService.NDJSON;
+        }
+        return null;
+    }
+
+    /**
+     * 获取用户统计信息：总数、各状态、各角色人数和最近30天每日注册数，读取计数器，不加载用户
      */
     @GetMapping("/stats")
-    public ResponseEntity<Object> getUserStats() {
+    public ResponseEntity<Map<String, Object>> getUserStats() {
         try {
-            List<UserDTO> users = userService.findAll();
-            long totalCount = users.size();
-            
-            return ResponseEntity.ok(new Object() {
-                public final long total = totalCount;
-                public final String message = "共有" + totalCount + "个用户";
-            });
+            return ResponseEntity.ok(userStatsService.getStats(30));
         } catch (Exception e) {
             log.error("获取用户统计失败", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * 按实际数据校正用户统计（定时任务也会执行），直接写库导入数据后可手动调用
+     */
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<String> reconcileUserStats() {
+        try {
+            int corrected = userStatsService.reconcile();
+            return ResponseEntity.ok("用户统计校正完成，修正" + corrected + "项");
+        } catch (Exception e) {
+            log.error("校正用户统计失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("校正失败");
+        }
+    }
+
     /**
      * 获取用户角色
      */
@@ -284,17 +403,40 @@ public class UserController {
     }
 
     /**
-     * 修复没有角色的用户
+     * 修复没有角色的用户：启动后台任务并立即返回进度，任务运行中时重复调用只返回进度
      */
     @PostMapping("/fix-roles")
-    public ResponseEntity<String> fixUsersWithoutRoles() {
+    public ResponseEntity<RoleFixStatus> fixUsersWithoutRoles() {
         try {
             log.info("手动触发修复没有角色的用户");
-            userService.fixUsersWithoutRoles();
-            return ResponseEntity.ok("用户角色修复完成");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(roleFixJob.start());
         } catch (Exception e) {
-            log.error("修复用户角色失败", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("修复失败");
+            log.error("启动用户角色修复失败", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * 查询修复任务进度
+     */
+    @GetMapping("/fix-roles")
+    public ResponseEntity<RoleFixStatus> getFixRolesStatus() {
+        return ResponseEntity.ok(roleFixJob.status());
+    }
+
+    /**
+     * 暂停修复任务（当前块执行完后生效）
+     */
+    @PostMapping("/fix-roles/pause")
+    public ResponseEntity<RoleFixStatus> pauseFixRoles() {
+        return ResponseEntity.ok(roleFixJob.pause());
+    }
+
+    /**
+     * 从暂停处继续修复任务
+     */
+    @PostMapping("/fix-roles/resume")
+    public ResponseEntity<RoleFixStatus> resumeFixRoles() {
+        return ResponseEntity.ok(roleFixJob.resume());
+    }
 } 
\ No newline at end of file
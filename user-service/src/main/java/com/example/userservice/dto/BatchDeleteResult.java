@@ -0,0 +1,51 @@
+package com.example.userservice.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 批量删除结果：每个请求的用户ID对应一个结果
+ */
+public class BatchDeleteResult {
+    public static final String DELETED = "DELETED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private int deletedCount;
+    private int notFoundCount;
+    private Map<Long, String> results = new LinkedHashMap<>();
+
+    public BatchDeleteResult() {}
+
+    public void put(Long userId, String outcome) {
+        results.put(userId, outcome);
+        if (DELETED.equals(outcome)) {
+            deletedCount++;
+        } else {
+            notFoundCount++;
+        }
+    }
+
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    public void setDeletedCount(int deletedCount) {
+        this.deletedCount = deletedCount;
+    }
+
+    public int getNotFoundCount() {
+        return notFoundCount;
+    }
+
+    public void setNotFoundCount(int notFoundCount) {
+        this.notFoundCount = notFoundCount;
+    }
+
+    public Map<Long, String> getResults() {
+        return results;
+    }
+
+    public void setResults(Map<Long, String> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * 修复无角色用户任务的进度
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoleFixStatus {
+    // IDLE / RUNNING / PAUSED / COMPLETED / FAILED
+    private String state;
+    private long scannedUpToId;
+    private long maxId;
+    private long fixedCount;
+    private int progressPercent;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public RoleFixStatus() {}
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public long getScannedUpToId() {
+        return scannedUpToId;
+    }
+
+    public void setScannedUpToId(long scannedUpToId) {
+        this.scannedUpToId = scannedUpToId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    public void setMaxId(long maxId) {
+        this.maxId = maxId;
+    }
+
+    public long getFixedCount() {
+        return fixedCount;
+    }
+
+    public void setFixedCount(long fixedCount) {
+        this.fixedCount = fixedCount;
+    }
+
+    public int getProgressPercent() {
+        return progressPercent;
+    }
+
+    public void setProgressPercent(int progressPercent) {
+        this.progressPercent = progressPercent;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.userservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户数据传输对象
@@ -14,6 +17,9 @@ public class UserDTO {
     private Integer status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // 只有 /api/users/with-roles 返回角色名，其他接口不输出该字段
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> roles;
 
     // 构造函数
     public UserDTO() {}
@@ -88,6 +94,14 @@ public class UserDTO {
         this.updatedAt = updatedAt;
     }
 
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
     @Override
     public String toString() {
         return "UserDTO{" +
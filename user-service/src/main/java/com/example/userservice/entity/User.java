@@ -1,15 +1,28 @@
 package com.example.userservice.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
+/**
+ * 用户实体，按ID和用户名（natural id）缓存在二级缓存中，缓存区域配置见ehcache.xml
+ */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 用户名可以修改，natural id需声明为可变
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String username;
 
@@ -0,0 +1,24 @@
+package com.example.userservice.entity;
+
+import javax.persistence.*;
+
+/**
+ * 用户统计计数器，stat_key见UserStatsService
+ */
+@Entity
+@Table(name = "user_stats")
+public class UserStat {
+    @Id
+    @Column(name = "stat_key", length = 64)
+    private String statKey;
+
+    @Column(name = "stat_value", nullable = false)
+    private long statValue;
+
+    public UserStat() {}
+
+    public String getStatKey() { return statKey; }
+    public void setStatKey(String statKey) { this.statKey = statKey; }
+    public long getStatValue() { return statValue; }
+    public void setStatValue(long statValue) { this.statValue = statValue; }
+}
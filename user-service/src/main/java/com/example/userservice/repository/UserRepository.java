@@ -1,11 +1,47 @@
 package com.example.userservice.repository;
 
 import com.example.userservice.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
     boolean existsByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    /**
+     * 一条SQL查出所有用户及其角色名，每个(用户, 角色)一行，没有角色的用户角色名为null
+     */
+    @Query("SELECT u, r.name FROM User u LEFT JOIN UserRole ur ON ur.user = u LEFT JOIN ur.role r ORDER BY u.id")
+    List<Object[]> findAllWithRoleNames();
+
+    /**
+     * 按主键分批读取用户名，每行为 [id, username]，用于构建用户名过滤器
+     */
+    @Query("SELECT u.id, u.username FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findIdAndUsernameAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
+
+    /**
+     * 存在的用户及删除时更新统计所需的字段，每行为 [id, status, createdAt]
+     */
+    @Query("SELECT u.id, u.status, u.createdAt FROM User u WHERE u.id IN :ids")
+    List<Object[]> findIdStatusCreatedAt(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * 按用户名（natural id）加载，先查natural id缓存和实体缓存，都命中时不访问数据库
+     */
+    @Transactional(readOnly = true)
+    Optional<User> findByUsername(String username);
+
+    /**
+     * 按条件和排序取前limit行，不执行count查询（游标分页使用）
+     */
+    List<User> findFirst(Specification<User> spec, Sort sort, int limit);
+}
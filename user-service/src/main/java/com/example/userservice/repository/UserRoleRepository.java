@@ -5,21 +5,55 @@ import com.example.userservice.entity.UserRole.UserRoleId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserRoleRepository extends JpaRepository<UserRole, UserRoleId> {
     
-    @Query("SELECT ur FROM UserRole ur WHERE ur.user.id = :userId")
+    /**
+     * 用户的角色关联，角色一并取出，访问getRole()不再触发懒加载
+     */
+    @Query("SELECT ur FROM UserRole ur JOIN FETCH ur.role WHERE ur.id.userId = :userId")
     List<UserRole> findByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT ur FROM UserRole ur WHERE ur.user.id = :userId AND ur.role.name = :roleName")
-    UserRole findByUserIdAndRoleName(@Param("userId") Long userId, @Param("roleName") String roleName);
-    
     @Modifying
-    @Query("DELETE FROM UserRole ur WHERE ur.user.id = :userId AND ur.role.id = :roleId")
-    void deleteByUserIdAndRoleId(@Param("userId") Long userId, @Param("roleId") Long roleId);
+    @Query("DELETE FROM UserRole ur WHERE ur.id.userId = :userId AND ur.id.roleId = :roleId")
+    int deleteByUserIdAndRoleId(@Param("userId") Long userId, @Param("roleId") Long roleId);
+
+    @Query("SELECT r.name FROM UserRole ur JOIN ur.role r WHERE ur.id.userId = :userId")
+    List<String> findRoleNamesByUserId(@Param("userId") Long userId);
+
+    /**
+     * 一页用户的角色名，每个(用户ID, 角色名)一行
+     */
+    @Query("SELECT ur.id.userId, r.name FROM UserRole ur JOIN ur.role r WHERE ur.id.userId IN :userIds")
+    List<Object[]> findRoleNamesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 为id在(fromId, toId]范围内、没有任何角色的用户分配角色，一条INSERT ... SELECT完成
+     *
+     * 查询提示声明只涉及user_roles表，不清空用户的二级缓存
+     *
+     * @return 分配的用户数
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "user_roles"))
+    @Query(value = "INSERT INTO user_roles (user_id, role_id, created_at) " +
+            "SELECT u.id, :roleId, CURRENT_TIMESTAMP FROM users u " +
+            "WHERE u.id > :fromId AND u.id <= :toId " +
+            "AND NOT EXISTS (SELECT 1 FROM user_roles ur WHERE ur.user_id = u.id)", nativeQuery = true)
+    int assignRoleToUsersWithoutRoles(@Param("roleId") Long roleId, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT r.name, COUNT(ur) FROM UserRole ur JOIN ur.role r WHERE ur.id.userId IN :userIds GROUP BY r.name")
+    List<Object[]> countRoleNamesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM UserRole ur WHERE ur.id.userId IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
 } 
\ No newline at end of file
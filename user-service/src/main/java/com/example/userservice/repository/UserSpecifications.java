@@ -0,0 +1,73 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.dto.UserQuery;
+import com.example.userservice.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户列表的查询条件
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {}
+
+    /**
+     * 按UserQuery筛选：文本字段前缀匹配，状态精确匹配，创建日期为闭区间
+     */
+    public static Specification<User> matching(UserQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            addPrefix(predicates, cb, root.get("username"), query.getUsername());
+            addPrefix(predicates, cb, root.get("email"), query.getEmail());
+            addPrefix(predicates, cb, root.get("phone"), query.getPhone());
+            if (query.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), query.getStatus()));
+            }
+            if (query.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), query.getCreatedFrom().atStartOfDay()));
+            }
+            if (query.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("createdAt"), query.getCreatedTo().plusDays(1).atStartOfDay()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 游标分页：排在上一页最后一行(value, id)之后的记录，id作为排序值相同时的次序
+     * value可以为null：与MySQL排序一致，NULL视为最小值，升序时排在最前，降序时排在最后
+     */
+    public static <T extends Comparable<? super T>> Specification<User> after(String field, T value, Long id, boolean ascending) {
+        return (root, criteriaQuery, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            if ("id".equals(field)) {
+                return idAfter;
+            }
+            Path<T> path = root.get(field);
+            if (value == null) {
+                Predicate nullAfter = cb.and(cb.isNull(path), idAfter);
+                return ascending ? cb.or(nullAfter, cb.isNotNull(path)) : nullAfter;
+            }
+            Predicate valueAfter = ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+            Predicate after = cb.or(valueAfter, cb.and(cb.equal(path, value), idAfter));
+            return ascending ? after : cb.or(after, cb.isNull(path));
+        };
+    }
+
+    private static void addPrefix(List<Predicate> predicates, CriteriaBuilder cb, Path<String> path, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return;
+        }
+        // 转义通配符，用户输入按字面匹配
+        String escaped = value.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        predicates.add(cb.like(path, escaped + "%", '\\'));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.UserStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+public interface UserStatRepository extends JpaRepository<UserStat, String> {
+
+    /**
+     * 原子地增减计数，统计项不存在时创建
+     * 用查询提示声明只涉及user_stats表，否则Hibernate执行原生更新语句后会清空全部二级缓存（包括用户缓存）
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "user_stats"))
+    @Query(value = "INSERT INTO user_stats (stat_key, stat_value) VALUES (:key, :delta) " +
+            "ON DUPLICATE KEY UPDATE stat_value = stat_value + :delta", nativeQuery = true)
+    void increment(@Param("key") String key, @Param("delta") long delta);
+
+    /**
+     * 总数、各状态、各角色的计数（主键范围查询，与按日统计的行数无关）
+     */
+    @Query("SELECT s FROM UserStat s WHERE s.statKey = 'total' OR s.statKey LIKE 'status:%' OR s.statKey LIKE 'role:%'")
+    List<UserStat> findSummary();
+
+    List<UserStat> findByStatKeyBetweenOrderByStatKey(String from, String to);
+
+    @Query(value = "SELECT stat_value FROM user_stats WHERE stat_key = :key", nativeQuery = true)
+    Long findValue(@Param("key") String key);
+
+    /**
+     * 锁住单个计数行并读取最新值
+     */
+    @Query(value = "SELECT stat_value FROM user_stats WHERE stat_key = :key FOR UPDATE", nativeQuery = true)
+    Long lockValue(@Param("key") String key);
+
+    // 以下为校正用的实际统计，需要扫描全表
+
+    @Query(value = "SELECT COUNT(*) FROM users", nativeQuery = true)
+    long countUsers();
+
+    @Query(value = "SELECT status, COUNT(*) FROM users GROUP BY status", nativeQuery = true)
+    List<Object[]> countByStatus();
+
+    @Query(value = "SELECT r.name, COUNT(*) FROM user_roles ur JOIN roles r ON r.id = ur.role_id GROUP BY r.name", nativeQuery = true)
+    List<Object[]> countByRole();
+
+    @Query(value = "SELECT CAST(created_at AS DATE), COUNT(*) FROM users WHERE created_at IS NOT NULL " +
+            "GROUP BY CAST(created_at AS DATE)", nativeQuery = true)
+    List<Object[]> countBySignupDay();
+}
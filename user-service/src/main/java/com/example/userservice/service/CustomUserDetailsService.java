@@ -2,6 +2,7 @@ package com.example.userservice.service;
 
 import com.example.userservice.entity.User;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.repository.UserRoleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,28 +22,41 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private ExpiringUserCache userCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.info("尝试登录用户名: {}", username);
+        UserDetails cached = userCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     log.warn("未找到用户: {}", username);
                     return new UsernameNotFoundException("User not found");
                 });
         List<GrantedAuthority> authorities = new ArrayList<>();
-        // 简单处理，默认所有用户ROLE_USER，实际可查user_roles表
-        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        for (String roleName : userRoleRepository.findRoleNamesByUserId(user.getId())) {
+            authorities.add(new SimpleGrantedAuthority(roleName));
+        }
         boolean enabled = user.getStatus() != null && user.getStatus() == 1;
         if (!enabled) {
             log.warn("用户被禁用: {}", username);
         }
         log.info("用户{}登录成功，enabled={}，id={}", username, enabled, user.getId());
-        return new org.springframework.security.core.userdetails.User(
+        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
                 enabled,
                 true, true, true,
                 authorities
         );
+        userCache.putUserInCache(userDetails);
+        return userDetails;
     }
 } 
\ No newline at end of file
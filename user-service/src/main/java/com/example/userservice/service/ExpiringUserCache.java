@@ -0,0 +1,105 @@
+package com.example.userservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已加载UserDetails的缓存，按用户名缓存，条目超过ttl过期，超过容量按LRU淘汰。
+ * 存取时都复制一份：认证成功后Spring Security会擦除返回对象中的密码，不能让它擦掉缓存里的那份。
+ * 用户修改、删除和角色变更时由UserService清除对应条目。
+ */
+@Component
+public class ExpiringUserCache implements UserCache {
+
+    private final Map<String, Entry> entries;
+    private final long ttlMillis;
+
+    public ExpiringUserCache(@Value("${user.details-cache.max-users:10000}") int maxUsers,
+                             @Value("${user.details-cache.ttl-ms:60000}") long ttlMillis) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(username);
+            if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(username);
+                entry = null;
+            }
+        }
+        return entry == null ? null : User.withUserDetails(entry.user).build();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        Entry entry = new Entry(User.withUserDetails(user).build(), System.currentTimeMillis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(user.getUsername(), entry);
+        }
+    }
+
+    /**
+     * 立即清除；在事务中调用时提交后再清除一次，防止提交前有并发登录把旧数据重新放进缓存
+     */
+    @Override
+    public void removeUserFromCache(String username) {
+        synchronized (entries) {
+            entries.remove(username);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (entries) {
+                        entries.remove(username);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 批量变更（批量删除、批量分配角色）时清空全部条目
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (entries) {
+                        entries.clear();
+                    }
+                }
+            });
+        }
+    }
+
+    private static class Entry {
+        private final UserDetails user;
+        private final long expiresAt;
+
+        Entry(UserDetails user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
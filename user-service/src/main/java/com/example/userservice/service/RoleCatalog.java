@@ -0,0 +1,51 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.Role;
+import com.example.userservice.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 角色目录：roles表只有几行且很少变化，启动时整表加载到内存，按名称查角色ID不再访问数据库。
+ * 内容是不可变快照，刷新时整体替换；查不到的名称会立即刷新一次，角色的改名和删除由定时刷新同步。
+ */
+@Service
+public class RoleCatalog {
+    private static final Logger log = LoggerFactory.getLogger(RoleCatalog.class);
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private volatile Map<String, Long> idsByName = Map.of();
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${user.roles.refresh-interval-ms:300000}",
+            fixedDelayString = "${user.roles.refresh-interval-ms:300000}")
+    public void refresh() {
+        Map<String, Long> loaded = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role.getId());
+        }
+        if (!loaded.equals(idsByName)) {
+            log.info("加载角色目录: {}", loaded.keySet());
+        }
+        idsByName = Map.copyOf(loaded);
+    }
+
+    public Optional<Long> findId(String name) {
+        Long id = idsByName.get(name);
+        if (id == null) {
+            refresh();
+            id = idsByName.get(name);
+        }
+        return Optional.ofNullable(id);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.RoleFixStatus;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.repository.UserRoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 后台修复没有角色的用户：按主键范围分块，每块一条 INSERT ... SELECT ... WHERE NOT EXISTS，
+ * 每块一个短事务，锁只在块内持有。进度可查询，可在块之间暂停和继续。
+ * 同一时间只运行一个任务。
+ */
+@Service
+public class RoleFixJob {
+    private static final Logger log = LoggerFactory.getLogger(RoleFixJob.class);
+
+    private final UserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final RoleCatalog roleCatalog;
+    private final ExpiringUserCache userCache;
+    private final UserStatsService userStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    private String state = "IDLE";
+    private long scannedUpToId;
+    private long maxId;
+    private long fixedCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private volatile boolean pauseRequested;
+
+    public RoleFixJob(UserRepository userRepository,
+                      UserRoleRepository userRoleRepository,
+                      RoleCatalog roleCatalog,
+                      ExpiringUserCache userCache,
+                      UserStatsService userStatsService,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${user.role-fix.chunk-size:5000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.roleCatalog = roleCatalog;
+        this.userCache = userCache;
+        this.userStatsService = userStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "role-fix-job");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 开始新任务；任务已在运行时直接返回当前进度，暂停中则继续
+     */
+    public synchronized RoleFixStatus start() {
+        if ("RUNNING".equals(state)) {
+            return status();
+        }
+        if ("PAUSED".equals(state)) {
+            return resume();
+        }
+        scannedUpToId = 0;
+        maxId = userRepository.findMaxId();
+        fixedCount = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+        log.info("开始修复没有角色的用户，最大用户ID: {}, 每块: {}", maxId, chunkSize);
+        launch();
+        return status();
+    }
+
+    /**
+     * 当前块执行完后暂停，进度保留
+     */
+    public synchronized RoleFixStatus pause() {
+        if ("RUNNING".equals(state)) {
+            pauseRequested = true;
+        }
+        return status();
+    }
+
+    public synchronized RoleFixStatus resume() {
+        if ("PAUSED".equals(state)) {
+            log.info("继续修复没有角色的用户，从ID {} 之后开始", scannedUpToId);
+            launch();
+        }
+        return status();
+    }
+
+    public synchronized RoleFixStatus status() {
+        RoleFixStatus status = new RoleFixStatus();
+        status.setState(state);
+        status.setScannedUpToId(scannedUpToId);
+        status.setMaxId(maxId);
+        status.setFixedCount(fixedCount);
+        status.setProgressPercent(maxId == 0 ? 100 : (int) (Math.min(scannedUpToId, maxId) * 100 / maxId));
+        status.setStartedAt(startedAt);
+        status.setFinishedAt(finishedAt);
+        status.setError(error);
+        return status;
+    }
+
+    private void launch() {
+        state = "RUNNING";
+        pauseRequested = false;
+        executor.execute(this::run);
+    }
+
+    private void run() {
+        try {
+            Long defaultRoleId = roleCatalog.findId("ROLE_USER")
+                    .orElseThrow(() -> new IllegalStateException("User role not found"));
+            while (true) {
+                long from;
+                synchronized (this) {
+                    if (scannedUpToId >= maxId) {
+                        state = "COMPLETED";
+                        finishedAt = LocalDateTime.now();
+                        log.info("修复完成，共为{}个用户分配了默认角色", fixedCount);
+                        return;
+                    }
+                    if (pauseRequested) {
+                        state = "PAUSED";
+                        log.info("修复已暂停，已扫描到ID {}，已修复{}个用户", scannedUpToId, fixedCount);
+                        return;
+                    }
+                    from = scannedUpToId;
+                }
+                long to = Math.min(from + chunkSize, maxId);
+                Integer fixed = transactionTemplate.execute(tx -> {
+                    int inserted = userRoleRepository.assignRoleToUsersWithoutRoles(defaultRoleId, from, to);
+                    if (inserted > 0) {
+                        userStatsService.apply(Map.of(UserStatsService.ROLE_PREFIX + "ROLE_USER", (long) inserted));
+                        userCache.clear();
+                    }
+                    return inserted;
+                });
+                synchronized (this) {
+                    scannedUpToId = to;
+                    fixedCount += fixed == null ? 0 : fixed;
+                }
+            }
+        } catch (Exception e) {
+            log.error("修复没有角色的用户失败", e);
+            synchronized (this) {
+                state = "FAILED";
+                error = e.getMessage();
+                finishedAt = LocalDateTime.now();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.userservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 可扩容的布隆过滤器：由若干分片组成，当前分片写满预期容量后追加一个容量翻倍、误判率减半的新分片，
+ * 各分片误判率依次为 fpp/2, fpp/4, ...，总误判率不超过fpp。查询任一分片命中即视为可能存在，不支持删除。
+ * 可并发调用，只有追加分片时加锁。
+ */
+class ScalableBloomFilter {
+
+    private final List<Slice> slices = new CopyOnWriteArrayList<>();
+
+    ScalableBloomFilter(long initialCapacity, double fpp) {
+        slices.add(new Slice(Math.max(initialCapacity, 1024), fpp / 2));
+    }
+
+    void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1;
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash1, hash2)) {
+                return;
+            }
+        }
+        Slice current = slices.get(slices.size() - 1);
+        if (current.count.get() >= current.capacity) {
+            synchronized (this) {
+                current = slices.get(slices.size() - 1);
+                if (current.count.get() >= current.capacity) {
+                    current = new Slice(current.capacity * 2, current.fpp / 2);
+                    slices.add(current);
+                }
+            }
+        }
+        current.put(hash1, hash2);
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1;
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按各分片当前元素数估算的误判率
+     */
+    double expectedFpp() {
+        double notFalsePositive = 1;
+        for (Slice slice : slices) {
+            notFalsePositive *= 1 - slice.expectedFpp();
+        }
+        return 1 - notFalsePositive;
+    }
+
+    long approximateElementCount() {
+        return slices.stream().mapToLong(slice -> slice.count.get()).sum();
+    }
+
+    long sizeInBytes() {
+        return slices.stream().mapToLong(slice -> slice.bits.length() * 8L).sum();
+    }
+
+    int sliceCount() {
+        return slices.size();
+    }
+
+    // 64位FNV-1a，再用混合函数派生第二个哈希，k个位置按 hash1 + i * hash2 计算
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static class Slice {
+        private final long capacity;
+        private final double fpp;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        Slice(long capacity, double fpp) {
+            this.capacity = capacity;
+            this.fpp = fpp;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        void put(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Long.remainderUnsigned(combined, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+                combined += hash2;
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Long.remainderUnsigned(combined, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += hash2;
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            return Math.pow(1 - Math.exp(-(double) hashCount * count.get() / bitCount), hashCount);
+        }
+    }
+}
@@ -0,0 +1,532 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserDTO;
+import com.example.userservice.dto.UserImportStatus;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入用户：请求体先落到临时文件，后台按块读取（CSV或NDJSON，每块batch-size行），每块：
+ * 1. 一条 IN 查询找出已存在的用户名并跳过；
+ * 2. 在ForkJoin线程池上并行计算BCrypt哈希（事务外执行，不占用连接）；
+ * 3. 一个事务内再查一次重名，JDBC批量插入users和user_roles，并更新统计计数。
+ * 任务排队依次执行，进度按任务ID查询，只保留最近的若干个任务。
+ * 请求体不超过max-bytes，超出时删除临时文件、不排队。
+ */
+@Service
+public class UserImportService {
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+    private static final int MAX_ERRORS = 100;
+    private static final int MAX_JOBS = 20;
+    private static final int MAX_USERNAME_LENGTH = 50;
+    private static final Set<String> CSV_COLUMNS = Set.of("username", "password", "email", "phone", "status");
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleCatalog roleCatalog;
+    private final UserStatsService userStatsService;
+    private final UsernameFilter usernameFilter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long maxBytes;
+    private final ForkJoinPool hashingPool;
+    private final ExecutorService executor;
+    private final Map<String, Job> jobs = new LinkedHashMap<String, Job>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    public UserImportService(UserRepository userRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PasswordEncoder passwordEncoder,
+                             RoleCatalog roleCatalog,
+                             UserStatsService userStatsService,
+                             UsernameFilter usernameFilter,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${user.import.batch-size:1000}") int batchSize,
+                             @Value("${user.import.hash-parallelism:0}") int hashParallelism,
+                             @Value("${user.import.max-bytes:52428800}") long maxBytes) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.roleCatalog = roleCatalog;
+        this.userStatsService = userStatsService;
+        this.usernameFilter = usernameFilter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBytes = maxBytes;
+        // 哈希是纯CPU计算，默认并行度等于CPU核数
+        this.hashingPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "user-import");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 接收导入数据并排队，立即返回任务进度
+     *
+     * @param contentLength 请求头中的长度，未知时为-1；超过上限时不读取请求体
+     * @param format csv 或 ndjson
+     * @throws TooLargeException 请求体超过 user.import.max-bytes
+     */
+    public UserImportStatus submit(InputStream body, long contentLength, String format) throws IOException {
+        if (!CSV.equals(format) && !NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+        if (contentLength > maxBytes) {
+            throw new TooLargeException("Import body exceeds " + maxBytes + " bytes");
+        }
+        Path file = Files.createTempFile("user-import-", "." + format);
+        try {
+            copyLimited(body, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        Job job = new Job(UUID.randomUUID().toString(), format);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        log.info("接收用户导入任务 {}，格式: {}，大小: {}字节", job.id, format, Files.size(file));
+        executor.execute(() -> run(job, file));
+        return job.snapshot();
+    }
+
+    // 分块复制，累计超过上限立即停止，不依赖Content-Length（分块传输时没有）
+    private void copyLimited(InputStream body, Path file) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                total += n;
+                if (total > maxBytes) {
+                    throw new TooLargeException("Import body exceeds " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    public Optional<UserImportStatus> status(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId)).map(Job::snapshot);
+        }
+    }
+
+    private void run(Job job, Path file) {
+        job.start();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            RowReader rows = CSV.equals(job.format) ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+            List<Row> chunk = new ArrayList<>(batchSize);
+            Row row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() >= batchSize) {
+                    importChunk(job, chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+            job.finish(null);
+            log.info("用户导入任务 {} 完成，导入{}个，跳过{}个，失败{}个",
+                    job.id, job.imported, job.skipped, job.failed);
+        } catch (Exception e) {
+            log.error("用户导入任务 {} 失败", job.id, e);
+            job.finish(e.getMessage() != null ? e.getMessage() : e.toString());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", file, e);
+            }
+        }
+    }
+
+    private void importChunk(Job job, List<Row> chunk) throws InterruptedException, ExecutionException {
+        // 校验必填字段和文件内重名；用户名列的排序规则不区分大小写，按小写比较
+        Map<String, Row> valid = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            String error = row.error != null ? row.error : validate(row.user);
+            if (error == null && valid.containsKey(key(row.user.getUsername()))) {
+                error = "duplicate username in file";
+            }
+            if (error != null) {
+                job.fail(row.line, error);
+            } else {
+                valid.put(key(row.user.getUsername()), row);
+            }
+        }
+        if (valid.isEmpty()) {
+            job.processed(chunk.size());
+            return;
+        }
+
+        // 先排除已存在的用户名，不为它们计算哈希
+        Set<String> existing = findExistingKeys(valid.values());
+        job.skip(existing.size());
+        valid.keySet().removeAll(existing);
+        List<Row> toInsert = new ArrayList<>(valid.values());
+        List<String> hashes = hashingPool.submit(() -> toInsert.parallelStream()
+                .map(row -> passwordEncoder.encode(row.user.getPassword()))
+                .collect(Collectors.toList())).get();
+        for (int i = 0; i < toInsert.size(); i++) {
+            toInsert.get(i).passwordHash = hashes.get(i);
+        }
+
+        Long defaultRoleId = roleCatalog.findId("ROLE_USER")
+                .orElseThrow(() -> new IllegalStateException("User role not found"));
+        int inserted;
+        try {
+            inserted = insert(toInsert, defaultRoleId);
+        } catch (DuplicateKeyException e) {
+            // 与并发注册撞名时整块回滚，重新按库中现状过滤后再插入一次
+            log.warn("导入任务 {} 插入时用户名冲突，重试本块", job.id);
+            inserted = insert(toInsert, defaultRoleId);
+        }
+        job.skip(toInsert.size() - inserted);
+        job.imported(inserted);
+        job.processed(chunk.size());
+    }
+
+    /**
+     * 一个事务内插入一块用户及其默认角色，返回实际插入的用户数
+     */
+    private int insert(List<Row> rows, Long defaultRoleId) {
+        Integer inserted = transactionTemplate.execute(tx -> {
+            Set<String> existing = findExistingKeys(rows);
+            List<Row> newRows = rows.stream()
+                    .filter(row -> !existing.contains(key(row.user.getUsername())))
+                    .collect(Collectors.toList());
+            if (newRows.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp timestamp = Timestamp.valueOf(now);
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (username, password, email, phone, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    newRows, newRows.size(), (ps, row) -> {
+                        ps.setString(1, row.user.getUsername());
+                        ps.setString(2, row.passwordHash);
+                        ps.setString(3, row.user.getEmail());
+                        ps.setString(4, row.user.getPhone());
+                        ps.setInt(5, row.user.getStatus());
+                        ps.setTimestamp(6, timestamp);
+                        ps.setTimestamp(7, timestamp);
+                    });
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO user_roles (user_id, role_id, created_at) SELECT u.id, ?, ? FROM users u WHERE u.username = ?",
+                    newRows, newRows.size(), (ps, row) -> {
+                        ps.setLong(1, defaultRoleId);
+                        ps.setTimestamp(2, timestamp);
+                        ps.setString(3, row.user.getUsername());
+                    });
+
+            Map<String, Long> statDeltas = new HashMap<>();
+            for (Row row : newRows) {
+                userStatsService.userDelta(row.user.getStatus(), now, 1)
+                        .forEach((key, delta) -> statDeltas.merge(key, delta, Long::sum));
+                usernameFilter.put(row.user.getUsername());
+            }
+            statDeltas.merge(UserStatsService.ROLE_PREFIX + "ROLE_USER", (long) newRows.size(), Long::sum);
+            userStatsService.apply(statDeltas);
+            return newRows.size();
+        });
+        return inserted == null ? 0 : inserted;
+    }
+
+    private Set<String> findExistingKeys(Collection<Row> rows) {
+        List<String> usernames = rows.stream().map(row -> row.user.getUsername()).collect(Collectors.toList());
+        return userRepository.findExistingUsernames(usernames).stream()
+                .map(UserImportService::key)
+                .collect(Collectors.toSet());
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String validate(UserDTO user) {
+        if (user.getUsername() == null || user.getUsername().trim().isEmpty()) {
+            return "username is required";
+        }
+        if (user.getUsername().length() > MAX_USERNAME_LENGTH) {
+            return "username is longer than " + MAX_USERNAME_LENGTH + " characters";
+        }
+        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+            return "password is required";
+        }
+        if (user.getStatus() == null) {
+            user.setStatus(1); // 默认启用
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * 导入请求体超过大小上限，调用方应返回413
+     */
+    public static class TooLargeException extends RuntimeException {
+        public TooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    private static class Row {
+        private final long line;
+        private final UserDTO user;
+        private final String error;
+        private String passwordHash;
+
+        Row(long line, UserDTO user, String error) {
+            this.line = line;
+            this.user = user;
+            this.error = error;
+        }
+    }
+
+    private interface RowReader {
+        /**
+         * @return 下一行数据，读完返回null；格式错误的行也返回，error不为null
+         */
+        Row next() throws IOException;
+    }
+
+    private class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    return new Row(line, objectMapper.readValue(text, UserDTO.class), null);
+                } catch (IOException e) {
+                    return new Row(line, null, "invalid JSON");
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 第一行为列名（username,password,email,phone,status，顺序不限），字段可用双引号包裹，不支持字段内换行
+     */
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long line;
+        private List<String> columns;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.trim().isEmpty()) {
+                    continue;
+                }
+                List<String> values = parseLine(text);
+                if (columns == null) {
+                    columns = values.stream()
+                            .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                            .collect(Collectors.toList());
+                    if (!columns.contains("username") || !columns.contains("password")) {
+                        throw new IllegalArgumentException("CSV header must contain username and password columns");
+                    }
+                    continue;
+                }
+                if (values.size() != columns.size()) {
+                    return new Row(line, null, "expected " + columns.size() + " columns but found " + values.size());
+                }
+                UserDTO user = new UserDTO();
+                for (int i = 0; i < columns.size(); i++) {
+                    String value = values.get(i).trim();
+                    if (value.isEmpty() || !CSV_COLUMNS.contains(columns.get(i))) {
+                        continue;
+                    }
+                    switch (columns.get(i)) {
+                        case "username":
+                            user.setUsername(value);
+                            break;
+                        case "password":
+                            user.setPassword(value);
+                            break;
+                        case "email":
+                            user.setEmail(value);
+                            break;
+                        case "phone":
+                            user.setPhone(value);
+                            break;
+                        default:
+                            try {
+                                user.setStatus(Integer.valueOf(value));
+                            } catch (NumberFormatException e) {
+                                return new Row(line, null, "invalid status: " + value);
+                            }
+                    }
+                }
+                return new Row(line, user, null);
+            }
+            return null;
+        }
+
+        private static List<String> parseLine(String text) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+
+    private static class Job {
+        private final String id;
+        private final String format;
+        private String state = "QUEUED";
+        private long processed;
+        private long imported;
+        private long skipped;
+        private long failed;
+        private final List<String> errors = new ArrayList<>();
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private String error;
+
+        Job(String id, String format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        synchronized void start() {
+            state = "RUNNING";
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void finish(String error) {
+            this.state = error == null ? "COMPLETED" : "FAILED";
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void fail(long line, String reason) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+
+        synchronized void skip(long count) {
+            skipped += count;
+        }
+
+        synchronized void imported(long count) {
+            imported += count;
+        }
+
+        synchronized void processed(long count) {
+            processed += count;
+        }
+
+        synchronized UserImportStatus snapshot() {
+            UserImportStatus status = new UserImportStatus();
+            status.setJobId(id);
+            status.setState(state);
+            status.setFormat(format);
+            status.setProcessedRows(processed);
+            status.setImportedCount(imported);
+            status.setSkippedCount(skipped);
+            status.setFailedCount(failed);
+            status.setErrors(errors.isEmpty() ? null : new ArrayList<>(errors));
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setError(error);
+            return status;
+        }
+    }
+}
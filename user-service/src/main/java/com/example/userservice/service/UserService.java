@@ -1,26 +1,53 @@
 package com.example.userservice.service;
 
+import com.example.userservice.dto.BatchDeleteResult;
 import com.example.userservice.dto.UserDTO;
+import com.example.userservice.dto.UserPageDTO;
+import com.example.userservice.dto.UserQuery;
 import com.example.userservice.entity.User;
-import com.example.userservice.entity.Role;
 import com.example.userservice.entity.UserRole;
+import com.example.userservice.entity.UserRole.UserRoleId;
 import com.example.userservice.repository.UserRepository;
 import com.example.userservice.repository.RoleRepository;
 import com.example.userservice.repository.UserRoleRepository;
+import com.example.userservice.repository.UserSpecifications;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    // 批量删除时每条 IN (...) 语句包含的ID数
+    private static final int DELETE_CHUNK_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "username", "email", "phone", "status", "createdAt");
+    // 游标分页只支持非空且有索引的排序字段
+    private static final Set<String> CURSOR_SORTABLE_FIELDS = Set.of("id", "username", "createdAt");
     @Autowired
     private UserRepository userRepository;
 
@@ -30,9 +57,22 @@ public class UserService {
     @Autowired
     private UserRoleRepository userRoleRepository;
 
+    @Autowired
+    private RoleCatalog roleCatalog;
+
+    @Autowired
+    private ExpiringUserCache userCache;
+
+    @Autowired
+    private UsernameFilter usernameFilter;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Transactional(readOnly = true)
     public List<UserDTO> findAll() {
         log.info("查询所有用户");
         return userRepository.findAll().stream()
@@ -40,6 +80,83 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 查询所有用户并带上角色名，用户管理页面使用，避免逐个用户查询角色
+     */
+    @Transactional(readOnly = true)
+    public List<UserDTO> findAllWithRoles() {
+        log.info("查询所有用户及角色");
+        Map<Long, UserDTO> users = new LinkedHashMap<>();
+        for (Object[] row : userRepository.findAllWithRoleNames()) {
+            User user = (User) row[0];
+            UserDTO dto = users.computeIfAbsent(user.getId(), id -> {
+                UserDTO converted = convertToDTO(user);
+                converted.setRoles(new ArrayList<>());
+                return converted;
+            });
+            if (row[1] != null) {
+                dto.getRoles().add((String) row[1]);
+            }
+        }
+        return new ArrayList<>(users.values());
+    }
+
+    /**
+     * 分页查询用户，带角色名
+     * cursor为null时按页码分页并统计总数；cursor不为null时按游标分页（空字符串表示第一页），不统计总数，翻页深度不影响耗时
+     *
+     * @param sort 排序字段和方向，如 "createdAt,desc"，默认 "id,asc"
+     */
+    @Transactional(readOnly = true)
+    public UserPageDTO findPage(UserQuery query, int page, int size, String sort, String cursor) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String[] sortParts = (sort == null || sort.trim().isEmpty() ? "id,asc" : sort).split(",");
+        String sortField = sortParts[0].trim();
+        if (!SORTABLE_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        String sortDirection = sortParts.length > 1 ? sortParts[1].trim() : "asc";
+        if (sortParts.length > 2 || !("asc".equalsIgnoreCase(sortDirection) || "desc".equalsIgnoreCase(sortDirection))) {
+            throw new IllegalArgumentException("Unsupported sort direction: " + sort);
+        }
+        boolean ascending = "asc".equalsIgnoreCase(sortDirection);
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        // id作为第二排序字段，保证排序值相同时顺序稳定
+        Sort order = "id".equals(sortField)
+                ? Sort.by(direction, "id")
+                : Sort.by(new Sort.Order(direction, sortField), new Sort.Order(direction, "id"));
+        Specification<User> spec = UserSpecifications.matching(query);
+
+        UserPageDTO result = new UserPageDTO();
+        result.setSize(pageSize);
+        List<User> users;
+        if (cursor == null) {
+            Page<User> userPage = userRepository.findAll(spec, PageRequest.of(Math.max(page, 0), pageSize, order));
+            users = userPage.getContent();
+            result.setPage(userPage.getNumber());
+            result.setTotalElements(userPage.getTotalElements());
+            result.setTotalPages(userPage.getTotalPages());
+            result.setHasNext(userPage.hasNext());
+        } else {
+            if (!CURSOR_SORTABLE_FIELDS.contains(sortField)) {
+                throw new IllegalArgumentException("Cursor paging does not support sort field: " + sortField);
+            }
+            if (!cursor.isEmpty()) {
+                spec = spec.and(afterCursor(cursor, sortField, ascending));
+            }
+            users = new ArrayList<>(userRepository.findFirst(spec, order, pageSize + 1));
+            boolean hasNext = users.size() > pageSize;
+            if (hasNext) {
+                users = users.subList(0, pageSize);
+                result.setNextCursor(encodeCursor(sortField, users.get(pageSize - 1)));
+            }
+            result.setHasNext(hasNext);
+        }
+        result.setContent(toDTOsWithRoles(users));
+        return result;
+    }
+
+    @Transactional(readOnly = true)
     public UserDTO findById(Long id) {
         log.info("根据ID查询用户: {}", id);
         return userRepository.findById(id)
@@ -50,6 +167,7 @@ public class UserService {
                 });
     }
 
+    @Transactional(readOnly = true)
     public UserDTO findByUsername(String username) {
         log.info("根据用户名查询用户: {}", username);
         return userRepository.findByUsername(username)
@@ -63,7 +181,7 @@ public class UserService {
     @Transactional
     public UserDTO create(UserDTO userDTO) {
         log.info("创建用户: {}", userDTO.getUsername());
-        if (userRepository.existsByUsername(userDTO.getUsername())) {
+        if (usernameFilter.exists(userDTO.getUsername(), userRepository::existsByUsername)) {
             log.warn("用户名已存在: {}", userDTO.getUsername());
             throw new RuntimeException("Username already exists");
         }
@@ -75,10 +193,13 @@ public class UserService {
         user.setPhone(userDTO.getPhone());
         user.setStatus(userDTO.getStatus() != null ? userDTO.getStatus() : 1); // 默认启用
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveCheckingUsername(user);
+        usernameFilter.put(savedUser.getUsername());
         
         // 为新用户自动分配默认的ROLE_USER角色
         assignDefaultRole(savedUser.getId());
+        // 计数行按统计项名称顺序加锁（role: < signup: < status: < total），角色计数已在上一步更新
+        userStatsService.userCreated(savedUser.getStatus(), savedUser.getCreatedAt());
         
         return convertToDTO(savedUser);
     }
@@ -91,15 +212,18 @@ public class UserService {
                     log.warn("未找到用户: {}", id);
                     return new RuntimeException("User not found");
                 });
+        // 按修改前的用户名清除登录缓存（用户名、密码、状态都可能变化）
+        userCache.removeUserFromCache(user.getUsername());
 
         // 只更新提供的字段
         if (userDTO.getUsername() != null && !userDTO.getUsername().trim().isEmpty()) {
             // 检查用户名是否已被其他用户使用
             if (!user.getUsername().equals(userDTO.getUsername()) && 
-                userRepository.existsByUsername(userDTO.getUsername())) {
+                usernameFilter.exists(userDTO.getUsername(), userRepository::existsByUsername)) {
                 throw new RuntimeException("Username already exists");
             }
             user.setUsername(userDTO.getUsername());
+            usernameFilter.put(user.getUsername());
         }
         
         if (userDTO.getPassword() != null && !userDTO.getPassword().trim().isEmpty()) {
@@ -115,10 +239,24 @@ public class UserService {
         }
         
         if (userDTO.getStatus() != null) {
+            userStatsService.statusChanged(user.getStatus(), userDTO.getStatus());
             user.setStatus(userDTO.getStatus());
         }
 
-        return convertToDTO(userRepository.save(user));
+        return convertToDTO(saveCheckingUsername(user));
+    }
+
+    /**
+     * 保存并立即刷新，用户名冲突以UNIQUE约束为准：
+     * 过滤器看不到其他实例、批量导入之外的直接SQL写入，也挡不住并发的同名注册，判定不存在时仍可能冲突
+     */
+    private User saveCheckingUsername(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("用户名已存在: {}", user.getUsername());
+            throw new RuntimeException("Username already exists");
+        }
     }
 
     @Transactional
@@ -134,6 +272,10 @@ public class UserService {
         
         // 先删除用户的所有角色关联
         List<UserRole> userRoles = userRoleRepository.findByUserId(id);
+        Map<String, Long> statDeltas = userStatsService.userDelta(user.getStatus(), user.getCreatedAt(), -1);
+        for (UserRole userRole : userRoles) {
+            statDeltas.merge(UserStatsService.ROLE_PREFIX + userRole.getRole().getName(), -1L, Long::sum);
+        }
         if (!userRoles.isEmpty()) {
             userRoleRepository.deleteAll(userRoles);
             log.info("删除用户 {} 的 {} 个角色关联", id, userRoles.size());
@@ -141,18 +283,120 @@ public class UserService {
         
         // 然后删除用户
         userRepository.deleteById(id);
+        userStatsService.apply(statDeltas);
+        userCache.removeUserFromCache(user.getUsername());
         log.info("用户删除成功: {} ({})", user.getUsername(), id);
     }
 
+    /**
+     * 批量删除用户：按块执行 DELETE ... WHERE user_id IN (...)，先删角色关联再删用户，整体在一个事务中
+     * 不存在的ID不影响其他用户的删除，在结果中标记为NOT_FOUND
+     */
+    @Transactional
+    public BatchDeleteResult deleteAll(Collection<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        log.info("批量删除用户，数量: {}", distinctIds.size());
+        Set<Long> deleted = new HashSet<>();
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            List<Object[]> rows = userRepository.findIdStatusCreatedAt(chunk);
+            if (rows.isEmpty()) {
+                continue;
+            }
+            // 先合并这一块对统计的影响，删除后一次更新各计数
+            List<Long> existing = new ArrayList<>(rows.size());
+            Map<String, Long> statDeltas = new HashMap<>();
+            for (Object[] row : rows) {
+                existing.add((Long) row[0]);
+                userStatsService.userDelta((Integer) row[1], (LocalDateTime) row[2], -1)
+                        .forEach((key, delta) -> statDeltas.merge(key, delta, Long::sum));
+            }
+            for (Object[] row : userRoleRepository.countRoleNamesByUserIds(existing)) {
+                statDeltas.merge(UserStatsService.ROLE_PREFIX + row[0], -((Long) row[1]), Long::sum);
+            }
+            int roleLinks = userRoleRepository.deleteByUserIdIn(existing);
+            int users = userRepository.deleteByIdIn(existing);
+            userStatsService.apply(statDeltas);
+            deleted.addAll(existing);
+            log.info("删除 {} 个用户及 {} 个角色关联", users, roleLinks);
+        }
+
+        if (!deleted.isEmpty()) {
+            // 批量删除不逐个查用户名，直接清空登录缓存
+            userCache.clear();
+        }
+
+        BatchDeleteResult result = new BatchDeleteResult();
+        for (Long id : distinctIds) {
+            result.put(id, deleted.contains(id) ? BatchDeleteResult.DELETED : BatchDeleteResult.NOT_FOUND);
+        }
+        log.info("批量删除完成，成功{}个，不存在{}个", result.getDeletedCount(), result.getNotFoundCount());
+        return result;
+    }
+
     /**
      * 检查用户名是否存在
+     * 不开启事务：过滤器判定不存在时不获取数据库连接
      */
     public boolean existsByUsername(String username) {
         log.info("检查用户名是否存在: {}", username);
-        return userRepository.existsByUsername(username);
+        return usernameFilter.exists(username, userRepository::existsByUsername);
+    }
+
+    /**
+     * 转换一页用户并一次查询补上角色名
+     */
+    private List<UserDTO> toDTOsWithRoles(List<User> users) {
+        Map<Long, UserDTO> dtos = new LinkedHashMap<>();
+        for (User user : users) {
+            UserDTO dto = convertToDTO(user);
+            dto.setRoles(new ArrayList<>());
+            dtos.put(user.getId(), dto);
+        }
+        if (!dtos.isEmpty()) {
+            for (Object[] row : userRoleRepository.findRoleNamesByUserIds(dtos.keySet())) {
+                dtos.get((Long) row[0]).getRoles().add((String) row[1]);
+            }
+        }
+        return new ArrayList<>(dtos.values());
+    }
+
+    // 游标内容：排序字段|id|排序值，Base64编码后对客户端不透明；createdAt为null时排序值为空
+    private String encodeCursor(String sortField, User last) {
+        String value = "username".equals(sortField) ? last.getUsername()
+                : "createdAt".equals(sortField) && last.getCreatedAt() != null ? last.getCreatedAt().toString() : "";
+        String raw = sortField + "|" + last.getId() + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    private UserDTO convertToDTO(User user) {
+    private Specification<User> afterCursor(String cursor, String sortField, boolean ascending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !sortField.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Long id = Long.valueOf(parts[1]);
+        switch (sortField) {
+            case "username":
+                return UserSpecifications.after(sortField, parts[2], id, ascending);
+            case "createdAt":
+                try {
+                    LocalDateTime createdAt = parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]);
+                    return UserSpecifications.after(sortField, createdAt, id, ascending);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+            default:
+                return UserSpecifications.after(sortField, id, id, ascending);
+        }
+    }
+
+    // 纯字段映射，不访问数据库（benchmarks模块直接调用）
+    public UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
         dto.setUsername(user.getUsername());
@@ -168,11 +412,14 @@ public class UserService {
     /**
      * 获取用户角色
      */
+    @Transactional(readOnly = true)
     public String[] getUserRoles(Long userId) {
         log.info("获取用户角色: {}", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
         
+        // 角色随关联一起查出，不再逐个懒加载
         List<UserRole> userRoles = userRoleRepository.findByUserId(userId);
         return userRoles.stream()
                 .map(ur -> ur.getRole().getName())
@@ -188,14 +435,15 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        Role adminRole = roleRepository.findByName("ROLE_ADMIN")
+        Long adminRoleId = roleCatalog.findId("ROLE_ADMIN")
                 .orElseThrow(() -> new RuntimeException("Admin role not found"));
         
-        // 检查是否已有管理员角色
-        UserRole existingUserRole = userRoleRepository.findByUserIdAndRoleName(userId, "ROLE_ADMIN");
-        if (existingUserRole == null) {
-            UserRole userRole = new UserRole(user, adminRole);
+        // 检查是否已有管理员角色（按主键查询）
+        if (!userRoleRepository.existsById(new UserRoleId(userId, adminRoleId))) {
+            UserRole userRole = new UserRole(user, roleRepository.getReferenceById(adminRoleId));
             userRoleRepository.save(userRole);
+            userStatsService.roleAdded("ROLE_ADMIN");
+            userCache.removeUserFromCache(user.getUsername());
             log.info("管理员角色添加成功: {}", userId);
         } else {
             log.info("用户已具有管理员角色: {}", userId);
@@ -211,12 +459,12 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        Role adminRole = roleRepository.findByName("ROLE_ADMIN")
+        Long adminRoleId = roleCatalog.findId("ROLE_ADMIN")
                 .orElseThrow(() -> new RuntimeException("Admin role not found"));
         
-        UserRole existingUserRole = userRoleRepository.findByUserIdAndRoleName(userId, "ROLE_ADMIN");
-        if (existingUserRole != null) {
-            userRoleRepository.delete(existingUserRole);
+        if (userRoleRepository.deleteByUserIdAndRoleId(userId, adminRoleId) > 0) {
+            userStatsService.roleRemoved("ROLE_ADMIN");
+            userCache.removeUserFromCache(user.getUsername());
             log.info("管理员角色移除成功: {}", userId);
         } else {
             log.info("用户没有管理员角色: {}", userId);
@@ -233,14 +481,15 @@ public class UserService {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
-            Role userRole = roleRepository.findByName("ROLE_USER")
+            Long userRoleId = roleCatalog.findId("ROLE_USER")
                     .orElseThrow(() -> new RuntimeException("User role not found"));
             
-            // 检查是否已有用户角色
-            UserRole existingUserRole = userRoleRepository.findByUserIdAndRoleName(userId, "ROLE_USER");
-            if (existingUserRole == null) {
-                UserRole newUserRole = new UserRole(user, userRole);
+            // 检查是否已有用户角色（按主键查询）
+            if (!userRoleRepository.existsById(new UserRoleId(userId, userRoleId))) {
+                UserRole newUserRole = new UserRole(user, roleRepository.getReferenceById(userRoleId));
                 userRoleRepository.save(newUserRole);
+                userStatsService.roleAdded("ROLE_USER");
+                userCache.removeUserFromCache(user.getUsername());
                 log.info("默认用户角色分配成功: {}", userId);
             } else {
                 log.info("用户已具有用户角色: {}", userId);
@@ -250,25 +499,4 @@ public class UserService {
             // 不抛出异常，避免影响用户创建
         }
     }
-
-    /**
-     * 修复没有角色的用户，为他们分配默认的ROLE_USER角色
-     */
-    @Transactional
-    public void fixUsersWithoutRoles() {
-        log.info("开始修复没有角色的用户");
-        List<User> allUsers = userRepository.findAll();
-        int fixedCount = 0;
-        
-        for (User user : allUsers) {
-            List<UserRole> userRoles = userRoleRepository.findByUserId(user.getId());
-            if (userRoles.isEmpty()) {
-                log.info("发现没有角色的用户: {} (ID: {})", user.getUsername(), user.getId());
-                assignDefaultRole(user.getId());
-                fixedCount++;
-            }
-        }
-        
-        log.info("修复完成，共为{}个用户分配了默认角色", fixedCount);
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.UserStat;
+import com.example.userservice.repository.UserStatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 用户统计：计数器保存在user_stats表中，随用户增删改在同一事务里增量更新，
+ * 查询只读取少量计数行，不再加载全部用户。
+ * 绕过服务直接写库（数据生成、导入脚本）造成的偏差由定时校正修复。
+ */
+@Service
+public class UserStatsService {
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+
+    static final String TOTAL = "total";
+    static final String STATUS_PREFIX = "status:";
+    static final String ROLE_PREFIX = "role:";
+    static final String SIGNUP_PREFIX = "signup:";
+    // 每完成一次校正加1，不属于统计数据
+    static final String RECONCILE_GENERATION = "reconcile:generation";
+
+    private final UserStatRepository userStatRepository;
+    private final TransactionTemplate snapshotTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserStatsService(UserStatRepository userStatRepository, PlatformTransactionManager transactionManager) {
+        this.userStatRepository = userStatRepository;
+        // 计数和实际统计必须来自同一个快照：依赖MySQL默认的可重复读，同一事务内的一致性读共用一个快照
+        // （连接延迟获取，HibernateJpaDialect不支持在事务上单独指定隔离级别）
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // 以下增量方法必须在用户数据变更的事务中调用，计数与数据一起提交或回滚
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userCreated(Integer status, LocalDateTime createdAt) {
+        apply(userDelta(status, createdAt, 1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Integer from, Integer to) {
+        if (String.valueOf(from).equals(String.valueOf(to))) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(statusKey(from), -1L);
+        deltas.put(statusKey(to), 1L);
+        apply(deltas);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void roleAdded(String roleName) {
+        userStatRepository.increment(ROLE_PREFIX + roleName, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void roleRemoved(String roleName) {
+        userStatRepository.increment(ROLE_PREFIX + roleName, -1);
+    }
+
+    /**
+     * 按统计项批量增减，删除多个用户时先在内存中合并再逐项更新
+     * 按统计项名称顺序更新，并发事务以相同顺序对计数行加锁，避免死锁
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Map<String, Long> deltas) {
+        new TreeMap<>(deltas).forEach((key, delta) -> {
+            if (delta != 0) {
+                userStatRepository.increment(key, delta);
+            }
+        });
+    }
+
+    /**
+     * 单个用户对各统计项的贡献，sign为1表示新增，-1表示删除
+     */
+    public Map<String, Long> userDelta(Integer status, LocalDateTime createdAt, long sign) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(TOTAL, sign);
+        deltas.put(statusKey(status), sign);
+        if (createdAt != null) {
+            deltas.put(SIGNUP_PREFIX + createdAt.toLocalDate(), sign);
+        }
+        return deltas;
+    }
+
+    public static String statusKey(Integer status) {
+        return STATUS_PREFIX + status;
+    }
+
+    /**
+     * @param days 返回最近多少天的按日注册数
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats(int days) {
+        long total = 0;
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byRole = new TreeMap<>();
+        for (UserStat stat : userStatRepository.findSummary()) {
+            String key = stat.getStatKey();
+            if (TOTAL.equals(key)) {
+                total = stat.getStatValue();
+            } else if (key.startsWith(STATUS_PREFIX)) {
+                byStatus.put(key.substring(STATUS_PREFIX.length()), stat.getStatValue());
+            } else {
+                byRole.put(key.substring(ROLE_PREFIX.length()), stat.getStatValue());
+            }
+        }
+        Map<String, Long> signups = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        for (UserStat stat : userStatRepository.findByStatKeyBetweenOrderByStatKey(
+                SIGNUP_PREFIX + today.minusDays(days - 1), SIGNUP_PREFIX + today)) {
+            signups.put(stat.getStatKey().substring(SIGNUP_PREFIX.length()), stat.getStatValue());
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("total", total);
+        stats.put("message", "共有" + total + "个用户");
+        stats.put("byStatus", byStatus);
+        stats.put("byRole", byRole);
+        stats.put("signupsPerDay", signups);
+        return stats;
+    }
+
+    /**
+     * 按实际数据校正计数器，分两步，全程不锁计数行：
+     * 1. 只读事务中在同一个快照里读取计数和实际统计，得出每项的偏差。增量更新与数据同事务提交，
+     *    快照内两者的差只来自绕过服务的写入，之后提交的增量不影响偏差。
+     * 2. 读写事务中按偏差原子增减。只锁校正代数行：快照之后其他实例已经完成校正（代数已变）时放弃本次，
+     *    避免多个实例用同一份偏差重复修正。
+     *
+     * @return 被修正的统计项数
+     */
+    @Scheduled(initialDelayString = "${user.stats.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${user.stats.reconcile-interval-ms:3600000}")
+    public int reconcile() {
+        Map<String, Long> drift = new TreeMap<>();
+        long generation = snapshotTemplate.execute(status -> {
+            Map<String, Long> actual = new HashMap<>();
+            actual.put(TOTAL, userStatRepository.countUsers());
+            for (Object[] row : userStatRepository.countByStatus()) {
+                Integer userStatus = row[0] == null ? null : ((Number) row[0]).intValue();
+                actual.put(statusKey(userStatus), ((Number) row[1]).longValue());
+            }
+            for (Object[] row : userStatRepository.countByRole()) {
+                actual.put(ROLE_PREFIX + row[0], ((Number) row[1]).longValue());
+            }
+            for (Object[] row : userStatRepository.countBySignupDay()) {
+                actual.put(SIGNUP_PREFIX + row[0], ((Number) row[1]).longValue());
+            }
+            Long current = userStatRepository.findValue(RECONCILE_GENERATION);
+            for (UserStat stat : userStatRepository.findAll()) {
+                if (!RECONCILE_GENERATION.equals(stat.getStatKey())) {
+                    // 实际数据中已不存在的统计项（如角色已无用户）归零
+                    drift.put(stat.getStatKey(), actual.getOrDefault(stat.getStatKey(), 0L) - stat.getStatValue());
+                    actual.remove(stat.getStatKey());
+                }
+            }
+            drift.putAll(actual);
+            drift.values().removeIf(delta -> delta == 0);
+            return current == null ? 0L : current;
+        });
+        if (drift.isEmpty()) {
+            log.info("用户统计校正完成，无偏差");
+            return 0;
+        }
+
+        Boolean applied = transactionTemplate.execute(status -> {
+            userStatRepository.increment(RECONCILE_GENERATION, 0);
+            if (userStatRepository.lockValue(RECONCILE_GENERATION) != generation) {
+                return false;
+            }
+            drift.forEach((key, delta) -> {
+                log.info("校正用户统计 {}: {}{}", key, delta > 0 ? "+" : "", delta);
+                userStatRepository.increment(key, delta);
+            });
+            userStatRepository.increment(RECONCILE_GENERATION, 1);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(applied)) {
+            log.info("其他实例已在统计快照之后完成校正，放弃本次校正");
+            return 0;
+        }
+        log.info("用户统计校正完成，修正{}项", drift.size());
+        return drift.size();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.userservice.service;
+
+import com.example.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * 已占用用户名的布隆过滤器，放在existsByUsername查询前面：过滤器判定不存在时直接返回，不访问数据库；
+ * 判定可能存在时再查库确认。启动后按主键分批扫描users表构建，新建和改名时写入。
+ * 删除的用户名无法从过滤器中移除，只会变成误判（仍查库确认），由定时重建清理。
+ * 构建完成前一律查库。
+ * users.username 的排序规则不区分大小写，过滤器中统一按小写存取。
+ * 过滤器只在本实例内存中，只记录本实例的写入：其他实例新建的用户、数据生成器或直接SQL写入的用户名
+ * 在下次重建前会被判定为不存在。因此它只用于加速可用性检查，新建和改名的冲突以数据库UNIQUE约束为准。
+ *
+ * 指标：user.username.filter{result=negative|false_positive|positive} 三类判定次数，
+ * 实测误判率 = false_positive / (negative + false_positive)；
+ * user.username.filter.fpp 估算误判率，user.username.filter.memory 占用字节数，user.username.filter.elements 元素数
+ */
+@Component
+public class UsernameFilter {
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double fpp;
+    private final int batchSize;
+    private final Counter negativeCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter positiveCounter;
+
+    private volatile ScalableBloomFilter active;
+    // 重建期间新写入的用户名同时写入正在构建的过滤器
+    private volatile ScalableBloomFilter building;
+    // put与发布/替换过滤器互斥，保证替换前后的写入至少进入最终生效的那个过滤器
+    private final Object swapLock = new Object();
+
+    public UsernameFilter(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${user.username-filter.expected-users:1000000}") long expectedUsers,
+                          @Value("${user.username-filter.fpp:0.01}") double fpp,
+                          @Value("${user.username-filter.batch-size:10000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.fpp = fpp;
+        this.batchSize = batchSize;
+        this.negativeCounter = Counter.builder("user.username.filter")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("user.username.filter")
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+        this.positiveCounter = Counter.builder("user.username.filter")
+                .tag("result", "positive")
+                .register(meterRegistry);
+        Gauge.builder("user.username.filter.fpp", this, f -> f.active == null ? 1 : f.active.expectedFpp())
+                .description("按元素数估算的误判率")
+                .register(meterRegistry);
+        Gauge.builder("user.username.filter.memory", this, f -> f.active == null ? 0 : f.active.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.username.filter.elements", this, f -> f.active == null ? 0 : f.active.approximateElementCount())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 用户名是否存在：过滤器判定不存在时直接返回false，否则用database查库确认
+     */
+    public boolean exists(String username, Predicate<String> database) {
+        ScalableBloomFilter filter = active;
+        if (filter != null && !filter.mightContain(key(username))) {
+            negativeCounter.increment();
+            return false;
+        }
+        boolean exists = database.test(username);
+        if (filter != null) {
+            (exists ? positiveCounter : falsePositiveCounter).increment();
+        }
+        return exists;
+    }
+
+    /**
+     * 记录已占用的用户名，在新建或改名的事务提交前调用；事务回滚只会留下一个误判
+     */
+    public void put(String username) {
+        synchronized (swapLock) {
+            if (active != null) {
+                active.put(key(username));
+            }
+            if (building != null) {
+                building.put(key(username));
+            }
+        }
+    }
+
+    /**
+     * 扫描users表重新构建，完成后替换当前过滤器。启动后立即执行一次，之后定期重建以清除已删除的用户名
+     */
+    @Scheduled(initialDelayString = "${user.username-filter.build-initial-delay-ms:0}",
+            fixedDelayString = "${user.username-filter.rebuild-interval-ms:86400000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ScalableBloomFilter next = new ScalableBloomFilter(expectedUsers, fpp);
+        synchronized (swapLock) {
+            building = next;
+        }
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Object[]> rows = userRepository.findIdAndUsernameAfter(afterId, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    next.put(key((String) row[1]));
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            synchronized (swapLock) {
+                active = next;
+                building = null;
+            }
+            log.info("用户名过滤器构建完成，用户名{}个，分片{}个，占用{}KB，估算误判率{}，耗时{}ms",
+                    next.approximateElementCount(), next.sliceCount(), next.sizeInBytes() / 1024,
+                    String.format("%.4f", next.expectedFpp()), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // 构建失败时保留原过滤器（首次构建失败则继续全部查库），等下次重建
+            log.error("用户名过滤器构建失败", e);
+            synchronized (swapLock) {
+                building = null;
+            }
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,15 @@
+-- 按实际查询检查索引
+--   findByUsername / existsByUsername:  username 上的UNIQUE约束索引
+--   findByEmail:                        idx_email
+--   user_roles按user_id查询:            主键 (user_id, role_id) 前缀
+--   roles按name查询:                    name 上的UNIQUE约束索引
+-- idx_username 与UNIQUE索引完全重复，只增加写入开销，删除
+
+SET @ddl = (SELECT IF(COUNT(*) > 0,
+        'DROP INDEX idx_username ON users',
+        'SELECT 1')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_username');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
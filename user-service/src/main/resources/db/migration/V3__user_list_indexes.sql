@@ -0,0 +1,13 @@
+-- 用户列表分页（/api/users/page）使用的索引
+--   用户名前缀筛选/排序/游标:  username 上的UNIQUE约束索引
+--   邮箱、电话前缀筛选:        idx_email / idx_phone
+--   按创建时间排序/游标/筛选:  idx_created_at（二级索引隐含主键，覆盖 (created_at, id) 排序）
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_created_at ON users (created_at)',
+        'SELECT 1')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_created_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,23 @@
+-- 用户统计计数器：与用户增删改在同一事务中增量更新，定时任务按实际数据校正
+--   total           用户总数
+--   status:<状态>    各状态用户数
+--   role:<角色名>    各角色用户数
+--   signup:<日期>    按创建日期统计的现存用户数
+CREATE TABLE IF NOT EXISTS user_stats (
+    stat_key VARCHAR(64) PRIMARY KEY COMMENT '统计项',
+    stat_value BIGINT NOT NULL DEFAULT 0 COMMENT '计数',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户统计计数器';
+
+-- 按现有数据初始化
+INSERT INTO user_stats (stat_key, stat_value)
+SELECT 'total', COUNT(*) FROM users;
+
+INSERT INTO user_stats (stat_key, stat_value)
+SELECT CONCAT('status:', COALESCE(status, 'null')), COUNT(*) FROM users GROUP BY status;
+
+INSERT INTO user_stats (stat_key, stat_value)
+SELECT CONCAT('role:', r.name), COUNT(*) FROM user_roles ur JOIN roles r ON r.id = ur.role_id GROUP BY r.name;
+
+INSERT INTO user_stats (stat_key, stat_value)
+SELECT CONCAT('signup:', DATE(created_at)), COUNT(*) FROM users WHERE created_at IS NOT NULL GROUP BY DATE(created_at);